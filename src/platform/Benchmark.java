@@ -0,0 +1,80 @@
+package platform;
+
+import java.util.Random;
+import platform.util.Box;
+import platform.util.Geometry;
+import platform.util.Vector;
+
+/**
+ * Compares the overlap test of {@link Box#isColliding(Box)}, called on each
+ * box, with the batch test of {@link Geometry#overlapping}, run on the same
+ * boxes packed in arrays.
+ * <p>
+ * With the arguments {@code <boxes>...}, tests one area against the given
+ * numbers of random boxes (1000, 10000 and 100000 by default), then reports
+ * the time spent per box by both tests.
+ */
+public class Benchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = {1000, 10000, 100000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; ++i)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes)
+            run(size);
+    }
+
+    // Runs both tests on the given number of boxes, spread over a level-sized area
+    private static void run(int size) {
+        Random random = new Random(42);
+        Box[] boxes = new Box[size];
+        double[] minX = new double[size];
+        double[] minY = new double[size];
+        double[] maxX = new double[size];
+        double[] maxY = new double[size];
+        int[] result = new int[size];
+        for (int i = 0; i < size; ++i) {
+            Vector center = new Vector(random.nextDouble() * 200.0, random.nextDouble() * 50.0);
+            boxes[i] = new Box(center, 0.2 + random.nextDouble() * 2.0, 0.2 + random.nextDouble() * 2.0);
+            minX[i] = boxes[i].getMin().getX();
+            minY[i] = boxes[i].getMin().getY();
+            maxX[i] = boxes[i].getMax().getX();
+            maxY[i] = boxes[i].getMax().getY();
+        }
+        Box area = new Box(new Vector(100.0, 25.0), 20.0, 10.0);
+
+        // Repeat until about ten million boxes are tested, after two warm-ups of the same length
+        int repeats = Math.max(1, 10000000 / size);
+        int scalar = 0;
+        int batch = 0;
+        long scalarTime = 0;
+        long batchTime = 0;
+        for (int pass = 0; pass < 3; ++pass) {
+            long start = System.nanoTime();
+            for (int r = 0; r < repeats; ++r) {
+                scalar = 0;
+                for (int i = 0; i < size; ++i)
+                    if (area.isColliding(boxes[i]))
+                        ++scalar;
+            }
+            scalarTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < repeats; ++r)
+                batch = Geometry.overlapping(area.getMin().getX(), area.getMin().getY(),
+                        area.getMax().getX(), area.getMax().getY(), minX, minY, maxX, maxY, 0, size, result);
+            batchTime = System.nanoTime() - start;
+        }
+        if (scalar != batch)
+            throw new IllegalStateException("tests disagree: " + scalar + " and " + batch + " boxes");
+
+        double tested = (double)repeats * size;
+        System.out.println(size + " boxes, " + batch + " overlapping");
+        System.out.println(String.format("  scalar  %8.3f ns per box", scalarTime / tested));
+        System.out.println(String.format("  batch   %8.3f ns per box", batchTime / tested));
+    }
+
+}
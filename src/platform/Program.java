@@ -1,36 +1,92 @@
 package platform;
 
 import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Modifier;
+import platform.game.Phase;
 import platform.game.Simulator;
+import platform.game.level.Level;
+import platform.util.AtlasLoader;
 import platform.util.BufferedLoader;
 import platform.util.DefaultLoader;
 import platform.util.Display;
 import platform.util.FileLoader;
+import platform.util.HeadlessDisplay;
 import platform.util.Loader;
 import platform.util.SwingDisplay;
+import platform.util.ThreadedDisplay;
+import platform.util.TickInput;
 
 /**
  * Provides main entry point.
+ * <p>
+ * The simulation runs with a fixed time step, {@link Simulator#defaultTickRate}
+ * steps per second unless the system property {@code tickRate} says otherwise,
+ * and drawing interpolates between the last two steps. The system property
+ * {@code threads} sets the number of threads used to update the self-contained
+ * actors (sequential by default). The system property {@code activeRadius}
+ * sets the distance to the center of the view out of which the actors that
+ * can sleep are not updated anymore, and {@code streamRadius} the distance
+ * out of which the streamable actors are saved to disk until the view comes
+ * back.
+ * <p>
+ * The window is drawn by a dedicated render thread, from the sprites recorded
+ * during the previous frame, unless the system property {@code renderThread}
+ * is {@code false}.
+ * <p>
+ * With the arguments {@code -headless <frames> <level>}, runs the given number
+ * of frames without any window, as fast as possible, then reports the frame
+ * rate and the time spent in each phase. The level is either the name of a
+ * class of {@code platform.game.level} (e.g. {@code Level01}) or the number
+ * of a save, as given to {@link Simulator#load(int)}.
  */
 public class Program {
 
     public static void main(String[] args) throws Exception {
         
+        if (args.length > 0 && args[0].equals("-headless")) {
+            runHeadless(args);
+            return;
+        }
+        
         // Create components
-        Loader loader = new BufferedLoader(new FileLoader("res/", DefaultLoader.INSTANCE));
+        Loader loader = new BufferedLoader(new AtlasLoader("res/", "atlas/", new FileLoader("res/", DefaultLoader.INSTANCE)));
         Display display = new SwingDisplay();
+        if (Boolean.parseBoolean(System.getProperty("renderThread", "true")))
+            display = new ThreadedDisplay(display);
         display.setBackground(Color.WHITE);
         try {
             
+            // Fixed time step
+            double tickRate = Double.parseDouble(System.getProperty("tickRate", Double.toString(Simulator.defaultTickRate)));
+            if (tickRate <= 0.0)
+                throw new IllegalArgumentException("tick rate must be positive");
+            double step = 1.0 / tickRate;
+            TickInput input = new TickInput(display, step);
+            double accumulator = 0.0;
+            
             // Game loop
             Simulator simulator = new Simulator(loader, args);
+            simulator.setParallelism(Integer.getInteger("threads", 1));
+            simulator.setActiveRadius(Double.parseDouble(System.getProperty("activeRadius", Double.toString(Simulator.defaultActiveRadius))));
+            simulator.setStreamRadius(Double.parseDouble(System.getProperty("streamRadius", Double.toString(Simulator.defaultStreamRadius))));
             double avg = 0.02;
             double last = display.getTime();
             while (!display.isCloseRequested()) {
 
                 // Do frame
                 display.begin();
-                simulator.update(display, display);
+                input.poll();
+                
+                // Run as many steps as the elapsed time requires (delta time is clamped by the display)
+                accumulator += display.getDeltaTime();
+                while (accumulator >= step) {
+                    input.tick();
+                    simulator.simulate(input, display);
+                    accumulator -= step;
+                }
+                simulator.render(input, display, accumulator / step);
                 display.end();
 
                 // Update framerate
@@ -47,4 +103,115 @@ public class Program {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Runs a level without any window and prints statistics.
+     * @param args "-headless", number of frames and level, not null
+     * @throws Exception if the level cannot be created
+     */
+    private static void runHeadless(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: -headless <frames> <level class or save number>");
+            return;
+        }
+        int frames = Integer.parseInt(args[1]);
+        String level = args[2];
+        
+        // Sprites must not ask for a screen
+        System.setProperty("java.awt.headless", "true");
+        
+        Loader loader = new BufferedLoader(new AtlasLoader("res/", "atlas/", new FileLoader("res/", DefaultLoader.INSTANCE)));
+        HeadlessDisplay display = new HeadlessDisplay();
+        Simulator simulator = new Simulator(loader, args);
+        simulator.setParallelism(Integer.getInteger("threads", 1));
+        simulator.setActiveRadius(Double.parseDouble(System.getProperty("activeRadius", Double.toString(Simulator.defaultActiveRadius))));
+        simulator.setStreamRadius(Double.parseDouble(System.getProperty("streamRadius", Double.toString(Simulator.defaultStreamRadius))));
+        
+        // Start the level: a save can only be loaded once the first Level is there
+        if (level.matches("-?[0-9]+")) {
+            display.begin();
+            simulator.update(display, display);
+            display.end();
+            simulator.load(Integer.parseInt(level));
+        } else {
+            String name = level.contains(".") ? level : "platform.game.level." + level;
+            Class<?> type;
+            try {
+                type = Class.forName(name);
+            } catch (ClassNotFoundException e) {
+                type = null;
+            }
+            if (type == null || !Level.class.isAssignableFrom(type) || Modifier.isAbstract(type.getModifiers())) {
+                System.out.println("Unknown level: " + level);
+                return;
+            }
+            try {
+                simulator.setNextLevel((Level)type.getDeclaredConstructor().newInstance());
+            } catch (NoSuchMethodException e) {
+                System.out.println("Level " + level + " has no constructor without arguments");
+                return;
+            }
+            simulator.nextLevel();
+        }
+        
+        // Run as fast as possible, with the synthetic clock of the display
+        simulator.setProfiling(true);
+        long start = System.nanoTime();
+        long allocated = allocatedBytes();
+        int done = 0;
+        long rejected = 0;
+        long reused = 0;
+        long asleep = 0;
+        long drawn = 0;
+        long culled = 0;
+        long redrawn = 0;
+        while (done < frames && !display.isCloseRequested()) {
+            display.begin();
+            simulator.update(display, display);
+            display.end();
+            rejected += simulator.getRejectedPairs();
+            reused += simulator.getReusedContacts();
+            asleep += simulator.getSleepingActors();
+            drawn += simulator.getDrawnActors();
+            culled += simulator.getCulledActors();
+            redrawn += simulator.getRenderedChunks();
+            ++done;
+        }
+        double elapsed = (System.nanoTime() - start) * 1e-9;
+        if (allocated >= 0)
+            allocated = allocatedBytes() - allocated;
+        
+        System.out.printf("%d frames in %.3f s, %.1f frames per second, %d sprites drawn%n",
+                done, elapsed, done / elapsed, display.getDrawCount());
+        System.out.printf("  %.1f pairs rejected by the collision masks per frame%n", (double)rejected / Math.max(done, 1));
+        System.out.printf("  %.1f contacts reused per frame%n", (double)reused / Math.max(done, 1));
+        System.out.printf("  %.1f actors asleep per frame%n", (double)asleep / Math.max(done, 1));
+        System.out.printf("  %.1f actors drawn and %.1f culled per frame%n",
+                (double)drawn / Math.max(done, 1), (double)culled / Math.max(done, 1));
+        System.out.printf("  %d chunks in memory, %d saved to disk%n",
+                simulator.getResidentChunks(), simulator.getStoredChunks());
+        System.out.printf("  %d walls covering %d blocks%n",
+                simulator.getWalls(), simulator.getMergedBlocks());
+        System.out.printf("  %d images of the scenery kept, %.2f drawn again per frame%n",
+                simulator.getSceneryChunks(), (double)redrawn / Math.max(done, 1));
+        if (allocated >= 0)
+            System.out.printf("  %.1f KiB allocated per frame by the main thread%n", allocated / 1024.0 / Math.max(done, 1));
+        for (Phase phase : Phase.values())
+            System.out.printf("  %-12s %8.4f ms per frame%n", phase.toString().toLowerCase(),
+                    simulator.getPhaseTime(phase) * 1e3 / Math.max(done, 1));
+    }
+
+    /**
+     * @return number of bytes allocated so far by the current thread, or -1
+     * if the virtual machine does not measure it
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean)bean;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled())
+            return -1;
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
@@ -4,7 +4,13 @@ import java.awt.event.KeyEvent;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
+import platform.game.signal.Signal;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -42,6 +48,83 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 	 */
 	private String spriteName;
 
+
+	/**
+	 * Node of the Actor in the spatial index of its World: 0 if none, -1 if
+	 * the Actor had no Box when added, the node plus one otherwise.
+	 * Not saved, the World rebuilds it.
+	 * @see ActorIndex
+	 */
+	transient int  proxy;
+
+
+	/**
+	 * Order in which the Actor has been added to its World, not saved.
+	 */
+	transient long sequence;
+
+
+	/**
+	 * Box of the Actor at the end of the previous and of the last step of
+	 * the simulation, used to interpolate its drawing. Not saved.
+	 */
+	transient Box  previousBox, stepBox;
+
+
+	/**
+	 * Whether the Actor is asleep, so that its preUpdate, update and
+	 * postUpdate methods are skipped. Not saved.
+	 * @see #canSleep()
+	 * @see #isAtRest()
+	 */
+	transient boolean asleep;
+
+
+	/**
+	 * Value of the wake Signal of the Actor when it fell asleep. Not saved.
+	 * @see #getWakeSignal()
+	 */
+	transient boolean wakeValue;
+
+
+	/**
+	 * Row of the Actor in the KinematicStore of its World plus one, 0 if
+	 * it is not a kinematic body. Not saved.
+	 * @see KinematicStore
+	 */
+	transient int  kinematic;
+
+
+	/**
+	 * Number of the last frame in which the Box of the Actor was found in
+	 * the View, so that it is drawn. Not saved.
+	 * @see #isCullable()
+	 */
+	transient long shown;
+
+
+	/**
+	 * Passes of the Simulator whose method is overridden, for each class of
+	 * Actor. Found once per class.
+	 */
+	private static final ClassValue<Set<Phase>> passes = new ClassValue<Set<Phase>>() {
+		@Override
+		protected Set<Phase> computeValue(Class<?> type) {
+			EnumSet<Phase> set = EnumSet.noneOf(Phase.class);
+			if(overrides(type, "preUpdate", Input.class))
+				set.add(Phase.PREUPDATE);
+			if(overrides(type, "interact", Actor.class))
+				set.add(Phase.INTERACTION);
+			if(overrides(type, "update", Input.class))
+				set.add(Phase.UPDATE);
+			if(overrides(type, "postUpdate", Input.class))
+				set.add(Phase.POSTUPDATE);
+			if(overrides(type, "draw", Input.class, Output.class))
+				set.add(Phase.DRAW);
+			return Collections.unmodifiableSet(set);
+		}
+	};
+
 	
 
 	/**
@@ -142,7 +225,9 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 
 
 	/**
-	 * Used to update the Actor after it has been drawn onto the World.
+	 * Used to update the Actor at the end of a step, once all Actors have
+	 * been updated and the moving bodies moved. The World is only drawn
+	 * after it, so that draw shows the state at the end of the step.
 	 * @param input  Can be used to analyse input.
 	 * @see Simulator
 	 * @see World
@@ -170,6 +255,185 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 	}
 
 
+	/**
+	 * Indicates whether this Actor never moves once registered. Static Actors
+	 * are stored in a separate grid of the World and are never paired with
+	 * each other, so none of them may react to the interactions of another one.
+	 * @return  whether the Actor is static, default false
+	 * @see StaticGrid
+	 */
+	public boolean isStatic() {
+		return false;
+	}
+
+
+	/**
+	 * Indicates whether this Actor may be saved to disk and removed from the
+	 * World while it is far from the View, then registered again when the
+	 * View comes back. It may neither refer to other Actors, which would be
+	 * saved along with it, nor be referred to, e.g. as a Signal, except by
+	 * the Actors whose anchor it is.
+	 * @return  whether the Actor may be streamed, default whether it is static
+	 * @see ChunkStreamer
+	 */
+	public boolean isStreamable() {
+		return isStatic();
+	}
+
+
+	/**
+	 * Indicates the streamable Actor this one is attached to, e.g. the Block
+	 * an Arrow is stuck in. A streamable Actor with an anchor is saved and
+	 * read back along with it, so it may refer to it.
+	 * @return  the anchor of the Actor, default null
+	 * @see #isStreamable()
+	 */
+	public Actor getAnchor() {
+		return null;
+	}
+
+
+	/**
+	 * Indicates whether the preUpdate, update and postUpdate methods of this
+	 * Actor only change its own state, so it can be updated in parallel with
+	 * the others. Such an Actor may only read the World, e.g. query it, apart
+	 * from register, unregister, hurt, setView and setBox, whose effects are
+	 * delayed until its group has been updated. Called in parallel, hurt then
+	 * returns 0 instead of the number of victims, so an Actor that depends on
+	 * this number must not be self-contained, or it would behave differently
+	 * with several threads.
+	 * @return  whether the Actor is self-contained, default false
+	 * @see Simulator#setParallelism(int)
+	 */
+	public boolean isSelfContained() {
+		return false;
+	}
+
+
+	/**
+	 * Indicates whether this Actor only draws within its Box, turned to any
+	 * angle, so that its draw method is skipped while its Box is out of the
+	 * View. It is not the case of the Actors drawn relative to the View (e.g.
+	 * the interface) or around their Box.
+	 * @return  whether the Actor may be culled, default true
+	 * @see Simulator#getCulledActors()
+	 */
+	public boolean isCullable() {
+		return true;
+	}
+
+
+	/**
+	 * Indicates whether this Actor is part of the scenery: static, drawn
+	 * within its Box, the same way at every frame, at the priority of the
+	 * Blocks. The scenery is drawn once into cached images, and drawn again
+	 * only where an Actor of the scenery is added, removed or redrawn.
+	 * @return  whether the Actor is drawn with the scenery, default false
+	 * @see World#redraw(Box)
+	 */
+	public boolean isScenery() {
+		return false;
+	}
+
+
+	/**
+	 * Indicates whether this Actor may fall asleep while its Box is outside
+	 * the active region around the center of the World, because its updates
+	 * only matter close to the View (e.g. an animation or a cooldown).
+	 * Asleep, its preUpdate, update and postUpdate methods are not called.
+	 * @return  whether the Actor may sleep far from the View, default false
+	 * @see Simulator#setActiveRadius(double)
+	 */
+	public boolean canSleep() {
+		return false;
+	}
+
+
+	/**
+	 * Indicates whether updating this Actor would currently change nothing,
+	 * so it may fall asleep wherever it is. It wakes up as soon as it is not
+	 * at rest anymore after an interaction or a hurt, or when its wake
+	 * Signal changes.
+	 * @return  whether the Actor is at rest, default false
+	 */
+	public boolean isAtRest() {
+		return false;
+	}
+
+
+	/**
+	 * Returns the Signal whose changes wake this Actor up, e.g. the Signal
+	 * moving it. Read when the Actor falls asleep.
+	 * @return  the Signal, or null if none (default)
+	 */
+	public Signal getWakeSignal() {
+		return null;
+	}
+
+
+	/**
+	 * Indicates the passes of the Simulator in which this Actor does some
+	 * work: preUpdate, interact, update, postUpdate and draw are only called
+	 * in these passes. By default, the passes whose method is overridden.
+	 * Read when the Actor is registered, must not change afterwards.
+	 * @return  the Phases of the passes of the Actor, not null
+	 */
+	public Set<Phase> getPasses() {
+		return passes.get(getClass());
+	}
+
+
+	/**
+	 * Indicates whether a class of Actor overrides a method of Actor.
+	 * @param type        the class, not null
+	 * @param name        name of the method
+	 * @param parameters  types of the parameters of the method
+	 * @return            whether the method is declared again below Actor
+	 */
+	private static boolean overrides(Class<?> type, String name, Class<?>... parameters) {
+		try {
+			Method method = type.getMethod(name, parameters);
+			return method.getDeclaringClass() != Actor.class;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+
+	/**
+	 * Indicates the kinds of this Actor, so that the Actors that cannot
+	 * interact with it are not paired with it. Read once per step.
+	 * @return  bits of Category, default Category.ALL
+	 * @see Category
+	 */
+	public int getCategory() {
+		return Category.ALL;
+	}
+
+
+	/**
+	 * Indicates the kinds of Actors on which this Actor may have an effect
+	 * when calling interact. Other Actors are skipped. Read once per step.
+	 * @return  bits of Category, default Category.ALL
+	 * @see Category
+	 */
+	public int getCollisionMask() {
+		return Category.ALL;
+	}
+
+
+	/**
+	 * Indicates whether this Actor only interacts with Actors whose Box
+	 * touches its own. Actors that are not local (e.g. Limits, or Actors
+	 * without a Box) are paired with every other Actor by the Broadphase.
+	 * @return  whether the interactions of the Actor are local, default true iff it has a Box
+	 * @see Broadphase
+	 */
+	public boolean hasLocalInteractions() {
+		return getBox() != null;
+	}
+
+
 	/**
 	 * Used in interactions between Actors
 	 * @param instigator  Actor responsible for the attack
@@ -183,6 +447,70 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 	}
 
 
+	/**
+	 * Used when a whole area is attacked, e.g. by an explosion. Only called
+	 * on the Actors whose Box intersects the area.
+	 * @param area        Box delimiting the attacked zone, not null
+	 * @param instigator  Actor responsible for the attack
+	 * @param type        type of the attack
+	 * @param amount      amount of damage dealt by the attack
+	 * @param location    location of the instigator of the attack
+	 * @return            whether the Actor has been hurt, by default as hurt would say
+	 * @see World#hurt(Box, Actor, Damage, double, Vector)
+	 */
+	public boolean hurt(Box area, Actor instigator, Damage type, double amount, Vector location) {
+		return hurt(instigator, type, amount, location);
+	}
+
+
+	/**
+	 * Indicates whether a Box intersects this Actor. Actors made of several
+	 * parts (e.g. a Tilemap) only test these parts.
+	 * @param box  a Box, not null
+	 * @return     whether the Box intersects the Actor, by default its Box
+	 */
+	public boolean isColliding(Box box) {
+		Box own = getBox();
+		return own != null && own.isColliding(box);
+	}
+
+
+	/**
+	 * Finds the smallest translation moving a Box outside this Actor, used
+	 * to push other Actors out of a solid one.
+	 * @param box  a Box, not null
+	 * @return     the translation, or null if the Box does not intersect
+	 *             the Actor, by default outside its Box
+	 * @see World#getContact(Actor, Actor)
+	 */
+	public Vector getCollision(Box box) {
+		Box own = getBox();
+		return own == null ? null : own.getCollision(box);
+	}
+
+
+	/**
+	 * Adds the Boxes of the parts of this Actor that may intersect an area,
+	 * e.g. to find where a projectile first hits it.
+	 * @param area   Box delimiting the zone, not null
+	 * @param parts  list where the Boxes are added, not null
+	 */
+	public void getParts(Box area, List<Box> parts) {
+		Box own = getBox();
+		if(own != null)
+			parts.add(own);
+	}
+
+
+	/**
+	 * Moves the Actor along with the kinematic body it stands on, e.g. a
+	 * Mover. By default, an Actor is not carried.
+	 * @param delta  movement of the body during this step, not null
+	 * @see KinematicStore#ride(Actor, Actor, Vector)
+	 */
+	public void carry(Vector delta) {}
+
+
 	/**
 	 * Returns the Actor's box.
 	 * @return  the Actor's box.
@@ -203,6 +531,10 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 			throw new NullPointerException();
 
 		this.box = box;
+
+		// Keeps the queries of the World up to date
+		if(world != null)
+			world.moved(this);
 	}
 
 
@@ -265,6 +597,15 @@ public abstract class Actor implements Comparable<Actor>, Serializable {
 	}
 
 
+	/**
+	 * @return  rank of this Actor in the World, the highest priorities
+	 *          first, as ordered by compareTo
+	 */
+	int getOrder() {
+		return -getPriority();
+	}
+
+
 	@Override
 	public int compareTo(Actor other) {
 		if(this.getPriority() > other.getPriority())
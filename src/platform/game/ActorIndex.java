@@ -0,0 +1,282 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import platform.util.AABBTree;
+import platform.util.Box;
+import platform.util.Geometry;
+import platform.util.Vector;
+
+/**
+ * Spatial index of the Actors of a World, answering its queries.
+ * <p>
+ * Actors that have a Box when added are stored in a dynamic AABB tree, and
+ * moved in it when their Box is set. The others are kept aside and tested by
+ * every query, until they get a Box. Queries return the Actors in the order
+ * of the World, whatever the shape of the tree.
+ * @see World#queryBox(Box)
+ */
+final class ActorIndex {
+
+	/**
+	 * Bounds of the candidates of a box query, packed to be tested at once,
+	 * and indices of the candidates kept. Each thread has its own, as the
+	 * self-contained Actors may query the World in parallel.
+	 * @see platform.util.Geometry
+	 */
+	private static final class Candidates {
+		private double[] minX = new double[64], minY = new double[64];
+		private double[] maxX = new double[64], maxY = new double[64];
+		private int[]    hits = new int[64];
+
+		/**
+		 * Makes room for some candidates, forgetting the previous ones.
+		 */
+		private void reserve(int count) {
+			if (minX.length >= count)
+				return;
+			int length = Math.max(count, 2 * minX.length);
+			minX = new double[length];
+			minY = new double[length];
+			maxX = new double[length];
+			maxY = new double[length];
+			hits = new int[length];
+		}
+	}
+
+
+	/**
+	 * Enlargement of the Boxes stored in the tree, so that small movements
+	 * do not change it.
+	 */
+	private static final double margin = 0.2;
+
+
+	/**
+	 * Actors that had a Box when added.
+	 */
+	private final AABBTree<Actor>  tree;
+
+
+	/**
+	 * Actors that had no Box when added, always tested by the queries.
+	 */
+	private final ArrayList<Actor> unbounded;
+
+
+	/**
+	 * Buffers of the box queries made by each thread.
+	 */
+	private final ThreadLocal<Candidates> candidateBuffers = ThreadLocal.withInitial(Candidates::new);
+
+
+	/**
+	 * Number of Actors added so far, used to keep the order of the queries.
+	 */
+	private long                   sequence;
+
+
+
+	/**
+	 * Creates an empty index.
+	 */
+	ActorIndex() {
+		this.tree      = new AABBTree<Actor>(margin);
+		this.unbounded = new ArrayList<Actor>();
+		this.sequence  = 0;
+	}
+
+
+
+	/**
+	 * Adds an Actor added to the World.
+	 * @param actor  an Actor not in the index, not null
+	 */
+	void add(Actor actor) {
+		actor.sequence = ++sequence;
+		Box box = actor.getBox();
+		if (box == null) {
+			actor.proxy = -1;
+			unbounded.add(actor);
+		} else
+			actor.proxy = tree.insert(actor, box) + 1;
+	}
+
+
+	/**
+	 * Removes an Actor removed from the World.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		if (actor.proxy > 0)
+			tree.remove(actor.proxy - 1);
+		else if (actor.proxy < 0)
+			unbounded.remove(actor);
+		actor.proxy = 0;
+	}
+
+
+	/**
+	 * Forgets all Actors. Their proxies are left to the World.
+	 */
+	void clear() {
+		tree.clear();
+		unbounded.clear();
+	}
+
+
+	/**
+	 * Updates the position of an Actor whose Box has been set.
+	 * @param actor  an Actor, not null
+	 * @param box    the new Box of the Actor, not null
+	 * @return       whether the Actor is in the index, as it may be linked
+	 *               to the World without being part of it (e.g. in Spawn)
+	 */
+	boolean move(Actor actor, Box box) {
+		if (actor.proxy > 0) {
+			if (tree.get(actor.proxy - 1) != actor)
+				return false;
+			tree.move(actor.proxy - 1, box);
+			return true;
+		}
+		if (actor.proxy < 0 && unbounded.remove(actor)) {
+			actor.proxy = tree.insert(actor, box) + 1;
+			return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Moves into the tree the Actors that had no Box when added, and have
+	 * one now. They are not moved otherwise, as they may never tell the
+	 * World that their Box has been set.
+	 * @param moved  called with each Actor moved into the tree, not null
+	 */
+	void indexUnbounded(Consumer<Actor> moved) {
+		for (int i = unbounded.size() - 1; i >= 0; --i) {
+			Actor a   = unbounded.get(i);
+			Box   box = a.getBox();
+			if (box != null && move(a, box))
+				moved.accept(a);
+		}
+	}
+
+
+	/**
+	 * Finds the Actors of the tree whose enlarged Box overlaps an area,
+	 * without testing their Box nor sorting them, e.g. to cull or wake them.
+	 * @param x0      left side of the area
+	 * @param y0      bottom side of the area
+	 * @param x1      right side of the area
+	 * @param y1      top side of the area
+	 * @param result  receives the Actors, not null
+	 */
+	void query(double x0, double y0, double x1, double y1, Collection<Actor> result) {
+		tree.query(x0, y0, x1, y1, result);
+	}
+
+
+	/**
+	 * @param area  searched area, not null
+	 * @return      the Actors whose Box collides with the area, in the order of the World
+	 * @see World#queryBox(Box)
+	 */
+	List<Actor> queryBox(Box area) {
+		ArrayList<Actor> candidates = new ArrayList<Actor>();
+		tree.query(area, candidates);
+
+		// Pack the Boxes of the candidates, then test them all at once
+		int count = candidates.size();
+		Candidates packed = candidateBuffers.get();
+		packed.reserve(count);
+		for (int i = 0; i < count; ++i) {
+			Box box = candidates.get(i).getBox();
+			if (box == null) {
+				packed.minX[i] = packed.minY[i] = Double.POSITIVE_INFINITY;
+				packed.maxX[i] = packed.maxY[i] = Double.NEGATIVE_INFINITY;
+			} else {
+				packed.minX[i] = box.getMin().getX();
+				packed.minY[i] = box.getMin().getY();
+				packed.maxX[i] = box.getMax().getX();
+				packed.maxY[i] = box.getMax().getY();
+			}
+		}
+		int found = Geometry.overlapping(area.getMin().getX(), area.getMin().getY(),
+				area.getMax().getX(), area.getMax().getY(),
+				packed.minX, packed.minY, packed.maxX, packed.maxY, 0, count, packed.hits);
+
+		// Actors without a Box never collide, so the unbounded ones are skipped
+		ArrayList<Actor> selected = new ArrayList<Actor>(found);
+		for (int h = 0; h < found; ++h)
+			selected.add(candidates.get(packed.hits[h]));
+		sort(selected);
+		return selected;
+	}
+
+
+	/**
+	 * @param center  center of the searched disc, not null
+	 * @param radius  radius of the disc, non negative
+	 * @return        the Actors whose Box is closer to the center than the radius
+	 * @see World#queryRadius(Vector, double)
+	 */
+	List<Actor> queryRadius(Vector center, double radius) {
+		if (radius < 0.0)
+			throw new IllegalArgumentException("radius must be non negative");
+		ArrayList<Actor> candidates = new ArrayList<Actor>();
+		tree.query(center.getX() - radius, center.getY() - radius,
+				center.getX() + radius, center.getY() + radius, candidates);
+		return select(candidates, a -> {
+			Box box = a.getBox();
+			if (box == null)
+				return false;
+			// Distance from the center to the closest point of the Box
+			double dx = Math.max(box.getMin().getX() - center.getX(), Math.max(0.0, center.getX() - box.getMax().getX()));
+			double dy = Math.max(box.getMin().getY() - center.getY(), Math.max(0.0, center.getY() - box.getMax().getY()));
+			return dx * dx + dy * dy < radius * radius;
+		});
+	}
+
+
+	/**
+	 * @param point  searched point, not null
+	 * @return       the Actors whose Box contains the point
+	 * @see World#queryPoint(Vector)
+	 */
+	List<Actor> queryPoint(Vector point) {
+		ArrayList<Actor> candidates = new ArrayList<Actor>();
+		tree.query(point.getX(), point.getY(), point.getX(), point.getY(), candidates);
+		return select(candidates, a -> a.getBox() != null && a.getBox().isColliding(point));
+	}
+
+
+	/**
+	 * Keeps the candidates that satisfy a condition, in the order of the World.
+	 * @param candidates  Actors found in the tree, not null
+	 * @param condition   exact test on each candidate, not null
+	 * @return            the candidates kept, not null
+	 */
+	private List<Actor> select(ArrayList<Actor> candidates, Predicate<Actor> condition) {
+		candidates.addAll(unbounded);
+		candidates.removeIf(condition.negate());
+		sort(candidates);
+		return candidates;
+	}
+
+
+	/**
+	 * Sorts the result of a query in the order of the World.
+	 * @param selected  Actors found by the query, not null
+	 */
+	private static void sort(List<Actor> selected) {
+		selected.sort((a, b) -> {
+			int order = a.compareTo(b);
+			return order != 0 ? order : Long.compare(a.sequence, b.sequence);
+		});
+	}
+}
@@ -1,5 +1,7 @@
 package platform.game;
 
+import platform.game.block.Tilemap;
+import platform.game.block.Wall;
 import platform.game.character.Player;
 import platform.util.Box;
 import platform.util.Input;
@@ -25,6 +27,14 @@ public class Arrow extends Actor {
 	 * Speed of the Arrow.
 	 */
 	private Vector velocity;
+
+
+	/**
+	 * Row of the Arrow in the PhysicsStore of its World plus one, 0 if not
+	 * registered. Once registered, position and velocity are only updated
+	 * when it is unregistered, e.g. to save the Arrow.
+	 */
+	private transient int body;
 	
 	
 	/**
@@ -114,17 +124,23 @@ public class Arrow extends Actor {
 				&& other.getBox() != null
 				&&(other.isSolid() || other.hurt(this, Damage.ARROW, 2.0, getBox().getCenter()))
 				&& owner != other
-				&& other.getBox().isColliding(getBox())) {
-			// Set the angle according to the velocity, then set this one to 0.
-			angle = velocity.getAngle();
-			velocity = Vector.ZERO;
+				&& other.isColliding(getBox())) {
+			// Set the angle according to the velocity, then stop the Arrow.
+			PhysicsStore physics = getWorld().getPhysics();
+			angle = Math.atan2(physics.getVelocityY(body - 1), physics.getVelocityX(body - 1));
+			physics.setVelocity(body - 1, Vector.ZERO);
+			physics.setMoving(body - 1, false);
 			
-			// Calculate the relativePosition factored by 0.5 if player (the arrow goes more inside...), 0.9 otherwise
-			relativePosition = getBox().getCenter().sub(other.getBox().getCenter()).mul((other instanceof Player)?0.5:0.9);
+			// Calculate the relativePosition factored by 0.5 if player (the arrow goes more inside...), 0.9 otherwise.
+			// The center of a Tilemap or a Wall is far from the block hit, the arrow stays where it is.
+			double factor = (other instanceof Player) ? 0.5 : (other instanceof Tilemap || other instanceof Wall) ? 1.0 : 0.9;
+			relativePosition = getBox().getCenter().sub(other.getBox().getCenter()).mul(factor);
 			
-			// Set the arrow as shot and the target to other
+			// Set the arrow as shot and the target to other. The owner is only
+			// needed while flying, and must not be saved with the target.
 			shot = true;
 			target = other;
+			owner = null;
 			
 			// Refresh the arrow to get the new priority
 			getWorld().unregister(this);
@@ -136,19 +152,16 @@ public class Arrow extends Actor {
 	}
 
 	@Override
-	public void update(Input input) {
-		super.update(input);
-
-		double delta = input.getDeltaTime();
+	public void postUpdate(Input input) {
+		super.postUpdate(input);
 
-		// If it's not yet landed, update the Arrow's parameters
+		// If it's not yet landed, the PhysicsStore of the World moved the
+		// Arrow after the update, follow its velocity
 		if(!shot) {
-			velocity = velocity.add(getWorld().getGravity().mul(delta));
-			position = position.add(velocity.mul(delta));
-			angle = velocity.getAngle();
-			setBox(new Box(position, getBox().getWidth(), getBox().getHeight()));
+			PhysicsStore physics = getWorld().getPhysics();
+			angle = Math.atan2(physics.getVelocityY(body - 1), physics.getVelocityX(body - 1));
 		}
-		// Otherwise, follow the target.
+		// Otherwise, follow the target, which has been moved too.
 		else {
 			setBox(new Box(target.getBox().getCenter().add(relativePosition), getBox().getWidth(), getBox().getHeight()));
 			
@@ -173,11 +186,75 @@ public class Arrow extends Actor {
 	 * @see Player
 	 */
 	public Vector getVelocity() {
-		return velocity;
+		if(body == 0)
+			return velocity;
+		return getWorld().getPhysics().getVelocity(body - 1);
+	}
+
+
+	@Override
+	public void register(World world) {
+		super.register(world);
+		body = world.getPhysics().add(position, velocity, getBox().getWidth(), getBox().getHeight(), this) + 1;
+		// A landed Arrow follows its target instead, a flying one must not cross thin Blocks
+		if(shot)
+			world.getPhysics().setMoving(body - 1, false);
+		else
+			world.getPhysics().setSwept(body - 1, getBox().getWidth(), getBox().getHeight());
+	}
+
+
+	@Override
+	public void unregister() {
+		// May be called twice if the Arrow has been unregistered twice
+		if(body != 0) {
+			store();
+			getWorld().getPhysics().remove(body - 1);
+			body = 0;
+		}
+		super.unregister();
+	}
+
+
+	/**
+	 * Copies the position and the velocity of the body into the fields,
+	 * so that they can be saved.
+	 */
+	private void store() {
+		PhysicsStore physics = getWorld().getPhysics();
+		position = physics.getPosition(body - 1);
+		velocity = physics.getVelocity(body - 1);
 	}
 
 	
 
+	@Override
+	public boolean isStreamable() {
+		// A landed Arrow is saved with its target instead of being lost
+		// when the target leaves the World
+		return shot && target != null && target.isStreamable();
+	}
+
+
+	@Override
+	public Actor getAnchor() {
+		return shot ? target : null;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.PROJECTILE;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Sticks into solid Actors and into the Player
+		return Category.BLOCK | Category.PASSIVE | Category.PROJECTILE | Category.CHARACTER;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Change the priority according to its status, so it appears behind the player after it shot him.
@@ -0,0 +1,47 @@
+package platform.game;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Finds the pairs of Actors that may interact during a frame, so that
+ * the Simulator does not have to test every pair of Actors.
+ * <p>
+ * The rule of the Simulator is kept: for each candidate pair, the Actor with
+ * the highest priority calls interact on the other one. Pairs are visited in
+ * the same order as the collection of Actors. Pairs whose first Actor does
+ * not take part in the interaction pass are never visited.
+ * @see Simulator
+ * @see GridBroadphase
+ * @see SweepBroadphase
+ */
+public interface Broadphase {
+
+	/**
+	 * Rebuilds the structure with the Actors of the current frame.
+	 * <p>
+	 * Actors stored in the grid of static Actors are never paired together,
+	 * and are only found through the grid by the other Actors.
+	 * @param actors   all Actors, in the order used by the interaction pass, not null
+	 * @param statics  grid of the static Actors, not null
+	 * @see Actor#isStatic()
+	 */
+	public void build(Iterable<Actor> actors, StaticGrid statics);
+
+
+	/**
+	 * Visits the candidate pairs found by the last call to build.
+	 * Pairs whose other Actor is not in the collision mask of the first one
+	 * are skipped.
+	 * @param action  called with (actor, other) whenever actor has a higher priority than other, not null
+	 * @see Actor#getCollisionMask()
+	 */
+	public void forEachPair(BiConsumer<Actor, Actor> action);
+
+
+	/**
+	 * Returns the number of pairs skipped by the last call to forEachPair
+	 * because of the collision masks, e.g. to tune the masks.
+	 * @return  number of rejected pairs
+	 */
+	public int getRejectedPairs();
+}
@@ -0,0 +1,30 @@
+package platform.game;
+
+/**
+ * Bits designating the kinds of Actors, used to skip the pairs of Actors that
+ * cannot interact. An Actor belongs to the categories of getCategory, and only
+ * calls interact on the Actors of the categories of getCollisionMask.
+ * @see Actor#getCategory()
+ * @see Actor#getCollisionMask()
+ */
+public final class Category {
+
+	public static final int BLOCK      = 1 << 0;  // Solid Blocks, Doors and Movers
+	public static final int PASSIVE    = 1 << 1;  // Spikes and Jumpers
+	public static final int CHARACTER  = 1 << 2;  // Player
+	public static final int PROJECTILE = 1 << 3;  // Arrows, Fireballs and Bombs
+	public static final int ITEM       = 1 << 4;  // Hearts and Keys
+	public static final int SIGNAL     = 1 << 5;  // Torches, Levers, Oscillators and Exits
+	public static final int EFFECT     = 1 << 6;  // Particles and Debris
+	public static final int DECOR      = 1 << 7;  // Images, Digits and backgrounds
+	public static final int INTERFACE  = 1 << 8;  // Buttons, Overlay and Eraser
+	public static final int WORLD      = 1 << 9;  // Levels and Limits
+
+	/** All categories, e.g. for an Actor that may interact with anything */
+	public static final int ALL        = -1;
+
+	/** No category */
+	public static final int NONE       = 0;
+
+	private Category() {}
+}
@@ -0,0 +1,511 @@
+package platform.game;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import platform.util.Box;
+import platform.util.Vector;
+
+/**
+ * Keeps in memory only the streamable Actors close to the center of a World.
+ * <p>
+ * The World is split into square chunks. The streamable Actors of a chunk
+ * are those whose center is in it, and those anchored to them. When a chunk gets too far from the center,
+ * its Actors are unregistered and saved to a file of their own; when it comes
+ * close again, they are read back. Files are written and read on a
+ * background thread, and the Actors read are only registered between two
+ * steps of the World. Each step only visits the chunks in memory, which
+ * are all close to the center, and those within the radius, so that its
+ * cost does not depend on the size of the World.
+ * @see Actor#isStreamable()
+ */
+final class ChunkStreamer {
+
+	/**
+	 * State of a chunk.
+	 */
+	private enum State {
+		/** Its Actors are in the World */
+		RESIDENT,
+		/** Its Actors are saved in its file */
+		STORED,
+		/** Its file is being read */
+		LOADING
+	}
+
+
+	/**
+	 * Square part of the World.
+	 */
+	private static final class Chunk {
+		private final long   key;
+		private State        state = State.RESIDENT;
+		private List<Actor>  actors = new ArrayList<Actor>();
+
+		private Chunk(long key) {
+			this.key = key;
+		}
+	}
+
+
+	/**
+	 * Actors read from the file of a chunk, waiting to be registered.
+	 */
+	private static final class Loaded {
+		private final Chunk       chunk;
+		private final int         generation;
+		private final List<Actor> actors;
+
+		private Loaded(Chunk chunk, int generation, List<Actor> actors) {
+			this.chunk      = chunk;
+			this.generation = generation;
+			this.actors     = actors;
+		}
+	}
+
+
+	/**
+	 * Size of a chunk.
+	 */
+	public static final double chunkSize = 32.0;
+
+
+	/**
+	 * World whose Actors are streamed.
+	 */
+	private final World world;
+
+
+	/**
+	 * Distance to the center within which the chunks are kept in memory.
+	 * Chunks are only saved once one more chunk away, so that they are not
+	 * saved and read again when the center moves back and forth.
+	 */
+	private double radius;
+
+
+	/**
+	 * Chunks that have had Actors, by coordinates.
+	 */
+	private final HashMap<Long, Chunk> chunks;
+
+
+	/**
+	 * Chunk of each streamable Actor in the World.
+	 */
+	private final IdentityHashMap<Actor, Chunk> owners;
+
+
+	/**
+	 * Chunks whose Actors are in the World, in the order they were created or read.
+	 */
+	private final LinkedHashSet<Chunk> resident;
+
+
+	/**
+	 * Number of chunks whose Actors are saved or being read.
+	 */
+	private int stored;
+
+
+	/**
+	 * Actors unregistered during this step, to be saved once they left the World.
+	 */
+	private final ArrayList<Chunk> evicted;
+
+
+	/**
+	 * Chunks read by the background thread.
+	 */
+	private final ConcurrentLinkedQueue<Loaded> loaded;
+
+
+	/**
+	 * Incremented when the World is cleared, so that the chunks read for a
+	 * previous Level are dropped.
+	 */
+	private int generation;
+
+
+	/**
+	 * Background thread reading and writing the files, in order.
+	 */
+	private ExecutorService io;
+
+
+	/**
+	 * Temporary folder holding the folders of the Levels, created when first
+	 * needed and deleted at exit.
+	 */
+	private File root;
+
+
+	/**
+	 * Folder of the files of the current Level, created when first needed.
+	 */
+	private File folder;
+
+
+
+	/**
+	 * Creates a streamer without any chunk.
+	 * @param world   World whose Actors are streamed, not null
+	 * @param radius  distance to the center within which the chunks are kept, positive
+	 */
+	ChunkStreamer(World world, double radius) {
+		if(world == null)
+			throw new NullPointerException();
+		this.world   = world;
+		this.chunks  = new HashMap<Long, Chunk>();
+		this.owners   = new IdentityHashMap<Actor, Chunk>();
+		this.resident = new LinkedHashSet<Chunk>();
+		this.evicted  = new ArrayList<Chunk>();
+		this.loaded   = new ConcurrentLinkedQueue<Loaded>();
+		setRadius(radius);
+	}
+
+
+
+	/**
+	 * @param radius  distance to the center within which the chunks are kept, positive
+	 */
+	void setRadius(double radius) {
+		if(radius <= 0.0)
+			throw new IllegalArgumentException("radius must be positive");
+		this.radius = radius;
+	}
+
+
+	/**
+	 * @return  number of chunks whose Actors are in the World
+	 */
+	int getResidentChunks() {
+		int count = 0;
+		for(Chunk chunk : resident)
+			if(!chunk.actors.isEmpty())
+				++count;
+		return count;
+	}
+
+
+	/**
+	 * @return  number of chunks whose Actors are saved in their file
+	 */
+	int getStoredChunks() {
+		return stored;
+	}
+
+
+	/**
+	 * Puts an Actor added to the World in its chunk, if it is streamable.
+	 * @param actor  an Actor, not null
+	 */
+	void add(Actor actor) {
+		if(!actor.isStreamable())
+			return;
+		// An Actor is saved in the same file as its anchor
+		Actor anchor = actor.getAnchor();
+		Box box = (anchor == null ? actor : anchor).getBox();
+		if(box == null)
+			return;
+		Chunk chunk = chunk(box.getCenter());
+		chunk.actors.add(actor);
+		owners.put(actor, chunk);
+
+		// The file of the chunk does not know about this Actor, the
+		// chunk has to be read back before being saved again
+		if(chunk.state == State.STORED)
+			load(chunk);
+	}
+
+
+	/**
+	 * Removes an Actor from its chunk, e.g. when it is destroyed.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		Chunk chunk = owners.remove(actor);
+		if(chunk != null)
+			chunk.actors.remove(actor);
+	}
+
+
+	/**
+	 * Unregisters the Actors of the chunks that got too far from the
+	 * center, and starts reading those that got close. The Actors read
+	 * since the last call are registered. Called between two steps, before
+	 * the Actors are added to or removed from the World.
+	 * @param center  center of the World, not null
+	 */
+	void stream(Vector center) {
+		drain();
+		Iterator<Chunk> iterator = resident.iterator();
+		while(iterator.hasNext()) {
+			Chunk chunk = iterator.next();
+			if(distance(chunk, center) <= radius + chunkSize)
+				continue;
+			iterator.remove();
+			if(chunk.actors.isEmpty()) {
+				// Nothing to save, the chunk is created again if needed
+				chunks.remove(chunk.key);
+				continue;
+			}
+			// Leaving the World forgets them, they are saved after the step
+			for(Actor actor : chunk.actors) {
+				owners.remove(actor);
+				world.unregister(actor);
+			}
+			chunk.state = State.STORED;
+			++stored;
+			evicted.add(chunk);
+		}
+
+		// Only the chunks within the radius may have to be read, including
+		// those ending right at the radius
+		long x0 = coordinate(center.getX() - radius) - 1, y0 = coordinate(center.getY() - radius) - 1;
+		long x1 = coordinate(center.getX() + radius), y1 = coordinate(center.getY() + radius);
+		for(long x = x0; x <= x1; ++x)
+			for(long y = y0; y <= y1; ++y) {
+				Chunk chunk = chunks.get(key(x, y));
+				if(chunk != null && chunk.state == State.STORED && distance(chunk, center) <= radius)
+					load(chunk);
+			}
+	}
+
+
+	/**
+	 * Saves the Actors unregistered by the last call to stream, once they
+	 * left the World.
+	 */
+	void flush() {
+		for(Chunk chunk : evicted) {
+			List<Actor> actors = chunk.actors;
+			chunk.actors = new ArrayList<Actor>();
+			File file = file(chunk);
+			execute(() -> write(file, actors));
+		}
+		evicted.clear();
+	}
+
+
+	/**
+	 * Reads back all the saved chunks and registers their Actors, e.g.
+	 * before the whole World is saved. Waits for the background thread.
+	 */
+	void restore() {
+		for(Chunk chunk : chunks.values())
+			if(chunk.state == State.STORED)
+				load(chunk);
+		if(io != null)
+			try {
+				io.submit(() -> {}).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		drain();
+	}
+
+
+	/**
+	 * Forgets all chunks and deletes their files, e.g. when the World is cleared.
+	 */
+	void clear() {
+		++generation;
+		chunks.clear();
+		owners.clear();
+		resident.clear();
+		stored = 0;
+		evicted.clear();
+		loaded.clear();
+		if(folder != null) {
+			File old = folder;
+			folder = null;
+			execute(() -> delete(old));
+		}
+	}
+
+
+	/**
+	 * Registers the Actors read by the background thread.
+	 */
+	private void drain() {
+		for(Loaded done = loaded.poll(); done != null; done = loaded.poll())
+			if(done.generation == generation && done.chunk.state == State.LOADING) {
+				done.chunk.state = State.RESIDENT;
+				resident.add(done.chunk);
+				--stored;
+				for(Actor actor : done.actors)
+					world.register(actor);
+			}
+	}
+
+
+	/**
+	 * Starts reading the file of a saved chunk.
+	 * @param chunk  a saved chunk, not null
+	 */
+	private void load(Chunk chunk) {
+		chunk.state = State.LOADING;
+		File file = file(chunk);
+		int current = generation;
+		execute(() -> loaded.add(new Loaded(chunk, current, read(file))));
+	}
+
+
+	/**
+	 * Saves Actors in a file, as they would be in a save of the World.
+	 * Called on the background thread.
+	 */
+	private static void write(File file, List<Actor> actors) {
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeInt(actors.size());
+			for(Actor actor : actors)
+				out.writeObject(actor);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Reads the Actors saved in a file. Called on the background thread.
+	 * @return  the Actors, not null
+	 */
+	private static List<Actor> read(File file) {
+		ArrayList<Actor> actors = new ArrayList<Actor>();
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+			int count = in.readInt();
+			for(int i = 0; i < count; ++i)
+				actors.add((Actor)in.readObject());
+		} catch (IOException | ClassNotFoundException e) {
+			e.printStackTrace();
+		}
+		return actors;
+	}
+
+
+	/**
+	 * Runs a task on the background thread, started when first needed.
+	 */
+	private void execute(Runnable task) {
+		if(io == null)
+			io = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Chunks");
+				thread.setDaemon(true);
+				return thread;
+			});
+		// Nothing is written any more once the program exits
+		if(!io.isShutdown())
+			io.execute(task);
+	}
+
+
+	/**
+	 * Stops the background thread and deletes all the files. Called at exit,
+	 * while the background thread may still be writing some of them.
+	 */
+	private void close() {
+		if(io != null) {
+			io.shutdownNow();
+			try {
+				io.awaitTermination(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		delete(root);
+	}
+
+
+	/**
+	 * Deletes a file, or a folder with all its content, if it exists.
+	 */
+	private static void delete(File file) {
+		File[] content = file.listFiles();
+		if(content != null)
+			for(File child : content)
+				delete(child);
+		file.delete();
+	}
+
+
+	/**
+	 * @return  file of a chunk, in the folder of the current Level
+	 */
+	private File file(Chunk chunk) {
+		if(root == null)
+			try {
+				root = Files.createTempDirectory("chunks").toFile();
+				Runtime.getRuntime().addShutdownHook(new Thread(this::close, "Chunks cleanup"));
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		if(folder == null) {
+			folder = new File(root, "level" + generation);
+			folder.mkdir();
+		}
+		return new File(folder, "chunk" + (int)(chunk.key >> 32) + "_" + (int)chunk.key + ".ser");
+	}
+
+
+	/**
+	 * @return  chunk containing a point, created if needed
+	 */
+	private Chunk chunk(Vector point) {
+		Long key = key(coordinate(point.getX()), coordinate(point.getY()));
+		Chunk chunk = chunks.get(key);
+		if(chunk == null) {
+			chunk = new Chunk(key);
+			chunks.put(key, chunk);
+			resident.add(chunk);
+		}
+		return chunk;
+	}
+
+
+	/**
+	 * @return  coordinate of the chunks containing a coordinate of the World
+	 */
+	private static long coordinate(double value) {
+		return (long)Math.floor(value / chunkSize);
+	}
+
+
+	/**
+	 * @return  key of the chunk at some coordinates
+	 */
+	private static long key(long x, long y) {
+		return (x << 32) | (y & 0xffffffffL);
+	}
+
+
+	/**
+	 * @return  distance from a point to the closest point of a chunk,
+	 *          along the farthest axis
+	 */
+	private static double distance(Chunk chunk, Vector point) {
+		double x0 = (int)(chunk.key >> 32) * chunkSize;
+		double y0 = (int)chunk.key * chunkSize;
+		double dx = Math.max(x0 - point.getX(), Math.max(0.0, point.getX() - x0 - chunkSize));
+		double dy = Math.max(y0 - point.getY(), Math.max(0.0, point.getY() - y0 - chunkSize));
+		return Math.max(dx, dy);
+	}
+}
@@ -0,0 +1,66 @@
+package platform.game;
+
+import platform.util.Vector;
+
+/**
+ * Overlap of an Actor with a solid Actor, as found by the World.
+ * Contacts do not change, so they can be reused while both Boxes stay the same.
+ * @see World#getContact(Actor, Actor)
+ */
+public final class Contact {
+
+	/**
+	 * Smallest translation moving the Actor outside the solid one.
+	 */
+	private final Vector penetration;
+
+
+	/**
+	 * Direction of the penetration, of length 1.
+	 */
+	private final Vector normal;
+
+
+	/**
+	 * Angle of the penetration, in radians.
+	 */
+	private final double angle;
+
+
+
+	/**
+	 * Creates a new Contact.
+	 * @param penetration  smallest translation moving the Actor outside the
+	 *                     solid one, not null nor zero
+	 */
+	public Contact(Vector penetration) {
+		this.penetration = penetration;
+		this.normal      = penetration.normalized();
+		this.angle       = penetration.getAngle();
+	}
+
+
+
+	/**
+	 * @return  smallest translation moving the Actor outside the solid one, not null
+	 */
+	public Vector getPenetration() {
+		return penetration;
+	}
+
+
+	/**
+	 * @return  direction in which the solid Actor pushes the other one, of length 1
+	 */
+	public Vector getNormal() {
+		return normal;
+	}
+
+
+	/**
+	 * @return  angle of the penetration, in radians, as given by Vector.getAngle
+	 */
+	public double getAngle() {
+		return angle;
+	}
+}
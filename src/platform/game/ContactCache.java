@@ -0,0 +1,208 @@
+package platform.game;
+
+import java.util.Arrays;
+
+import platform.util.Box;
+import platform.util.Vector;
+
+/**
+ * Contacts of the pairs of Actors that overlapped during the previous step,
+ * reused while both Boxes stay the same, e.g. for an Actor resting on a Block.
+ * <p>
+ * Pairs are identified by the order in which both Actors were added to the
+ * World. The contacts found during a step are stored in a new table, so the
+ * pairs that separated, or that were not tested anymore, are dropped at the
+ * next step.
+ * @see World#getContact(Actor, Actor)
+ */
+final class ContactCache {
+
+	/**
+	 * Open addressing hash table of contacts, keyed by pair.
+	 */
+	private static final class Table {
+
+		/**
+		 * Order of both Actors of each pair, 0 for the empty slots.
+		 */
+		private long[]    firsts, seconds;
+
+
+		/**
+		 * Boxes of both Actors when the contact was found.
+		 */
+		private Box[]     firstBoxes, secondBoxes;
+
+
+		/**
+		 * Contact of each pair.
+		 */
+		private Contact[] contacts;
+
+
+		/**
+		 * Number of used slots.
+		 */
+		private int       count;
+
+
+		private Table(int capacity) {
+			firsts      = new long[capacity];
+			seconds     = new long[capacity];
+			firstBoxes  = new Box[capacity];
+			secondBoxes = new Box[capacity];
+			contacts    = new Contact[capacity];
+		}
+
+
+		/**
+		 * @return  slot of the pair, or of the empty slot where it would be
+		 */
+		private int find(long first, long second) {
+			int mask = firsts.length - 1;
+			long hash = (first * 0x9E3779B97F4A7C15L) ^ (second * 0xC2B2AE3D27D4EB4FL);
+			int slot = (int)(hash ^ (hash >>> 32)) & mask;
+			while(firsts[slot] != 0 && (firsts[slot] != first || seconds[slot] != second))
+				slot = (slot + 1) & mask;
+			return slot;
+		}
+
+
+		private void put(long first, long second, Box firstBox, Box secondBox, Contact contact) {
+			if(2 * (count + 1) > firsts.length)
+				grow();
+			int slot = find(first, second);
+			if(firsts[slot] == 0)
+				++count;
+			firsts[slot]      = first;
+			seconds[slot]     = second;
+			firstBoxes[slot]  = firstBox;
+			secondBoxes[slot] = secondBox;
+			contacts[slot]    = contact;
+		}
+
+
+		private void clear() {
+			if(count == 0)
+				return;
+			Arrays.fill(firsts, 0L);
+			Arrays.fill(firstBoxes, null);
+			Arrays.fill(secondBoxes, null);
+			Arrays.fill(contacts, null);
+			count = 0;
+		}
+
+
+		// Doubles the capacity, placing the pairs again
+		private void grow() {
+			Table larger = new Table(firsts.length * 2);
+			for(int slot = 0; slot < firsts.length; ++slot)
+				if(firsts[slot] != 0)
+					larger.put(firsts[slot], seconds[slot], firstBoxes[slot], secondBoxes[slot], contacts[slot]);
+			firsts      = larger.firsts;
+			seconds     = larger.seconds;
+			firstBoxes  = larger.firstBoxes;
+			secondBoxes = larger.secondBoxes;
+			contacts    = larger.contacts;
+		}
+	}
+
+
+	/**
+	 * Contacts found during the previous step, and during the current one.
+	 */
+	private Table previous, current;
+
+
+	/**
+	 * Number of contacts reused during the current step.
+	 */
+	private int   reused;
+
+
+
+	/**
+	 * Creates an empty cache.
+	 */
+	ContactCache() {
+		previous = new Table(64);
+		current  = new Table(64);
+	}
+
+
+
+	/**
+	 * Finds the overlap of an Actor with a solid one, reusing the contact of
+	 * the previous step if both Boxes are the same.
+	 * @param solid  Actor pushing the other one, not null
+	 * @param actor  Actor pushed, not null
+	 * @return       the contact, or null if the Boxes do not overlap
+	 */
+	Contact get(Actor solid, Actor actor) {
+		Box solidBox = solid.getBox();
+		Box box      = actor.getBox();
+		if(solidBox == null || box == null)
+			return null;
+		long first  = solid.sequence;
+		long second = actor.sequence;
+
+		// Already found during this step
+		int slot = current.find(first, second);
+		if(current.firsts[slot] != 0 && same(current.firstBoxes[slot], solidBox)
+				&& same(current.secondBoxes[slot], box))
+			return current.contacts[slot];
+
+		Contact contact;
+		slot = previous.find(first, second);
+		if(previous.firsts[slot] != 0 && same(previous.firstBoxes[slot], solidBox)
+				&& same(previous.secondBoxes[slot], box)) {
+			contact = previous.contacts[slot];
+			++reused;
+		} else {
+			Vector penetration = solid.getCollision(box);
+			if(penetration == null)
+				return null;
+			contact = new Contact(penetration);
+		}
+		current.put(first, second, solidBox, box, contact);
+		return contact;
+	}
+
+
+	/**
+	 * Starts a new step: the contacts that are not found again are dropped.
+	 */
+	void nextStep() {
+		Table swap = previous;
+		previous   = current;
+		current    = swap;
+		current.clear();
+		reused     = 0;
+	}
+
+
+	/**
+	 * Drops all contacts, e.g. when the Actors are removed.
+	 */
+	void clear() {
+		previous.clear();
+		current.clear();
+		reused = 0;
+	}
+
+
+	/**
+	 * @return  number of contacts reused since the beginning of the step
+	 */
+	int getReused() {
+		return reused;
+	}
+
+
+	/**
+	 * @return  whether both Boxes have the same bounds
+	 */
+	private static boolean same(Box a, Box b) {
+		return a == b || a.equals(b);
+	}
+}
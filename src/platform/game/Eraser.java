@@ -1,5 +1,7 @@
 package platform.game;
 
+import platform.game.block.Tilemap;
+import platform.game.block.Wall;
 import platform.game.button.Spawn;
 import platform.game.button.SuperSpawner;
 import platform.util.Box;
@@ -47,10 +49,11 @@ public class Eraser extends Actor {
 		// - the other Actor is not the Eraser
 		// - the other Actor has a lower priority than the Eraser
 		if(other.getBox() != null
-				&& other.getBox().isColliding(getBox())
+				&& other.isColliding(getBox())
 				&& other != this
 				&& other.getPriority() < getPriority()
 				&& !(other instanceof Spawn)
+				&& !(other instanceof Wall)
 				&& !(other instanceof SuperSpawner))
 			// Set the other Actor as the Target
 			target = other;
@@ -67,14 +70,22 @@ public class Eraser extends Actor {
 	public void update(Input input) {
 		// If the user left-clicks and the target is not null, then erase the Eraser...
 		if(input.getMouseButton(1).isPressed()) {
-			// ...and the target if it's not null
-			if(target != null)
+			// ...and the target if it's not null, only the tiles below it for a Tilemap
+			if(target instanceof Tilemap)
+				((Tilemap)target).clear(getBox());
+			else if(target != null)
 				getWorld().unregister(target);
 			getWorld().unregister(this);
 		}
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.INTERFACE;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Must be less than Limits!
@@ -0,0 +1,138 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Broadphase using a uniform grid, stored in a spatial hash.
+ * <p>
+ * Each Actor is inserted in every cell its Box covers, and only Actors sharing
+ * a cell are tested against each other. Actors covering too many cells are
+ * paired with everyone instead.
+ */
+public class GridBroadphase extends PairBroadphase {
+
+	/**
+	 * Content of a cell, reused from one frame to the next.
+	 */
+	private static class Cell {
+		private int[] items = new int[8];
+		private int   size;
+	}
+
+
+	/**
+	 * Default size of a cell, a little larger than most Blocks.
+	 */
+	public static final double defaultCellSize = 2.0;
+
+
+	/**
+	 * Number of cells above which an Actor is paired with everyone.
+	 */
+	private static final int maxCells = 256;
+
+
+	/**
+	 * Inverse of the size of a cell.
+	 */
+	private final double inverseSize;
+
+
+	/**
+	 * Cells of the grid, indexed by their coordinates.
+	 */
+	private final HashMap<Long, Cell> cells;
+
+
+	/**
+	 * Cells that have been filled during the current frame.
+	 */
+	private final ArrayList<Cell> used;
+
+
+
+	/**
+	 * Full constructor.
+	 * @param cellSize  size of a cell, positive
+	 * @param margin    distance under which two Boxes are paired, non negative
+	 */
+	public GridBroadphase(double cellSize, double margin) {
+		super(margin);
+		if(cellSize <= 0.0)
+			throw new IllegalArgumentException("cell size must be positive");
+		this.inverseSize = 1.0 / cellSize;
+		this.cells       = new HashMap<Long, Cell>();
+		this.used        = new ArrayList<Cell>();
+	}
+
+
+	/**
+	 * Constructor with the default cell size and no margin.
+	 */
+	public GridBroadphase() {
+		this(defaultCellSize, 0.0);
+	}
+
+
+
+	@Override
+	protected void collect() {
+		// Empty the cells of the previous frame
+		for(Cell cell : used)
+			cell.size = 0;
+		used.clear();
+
+		// Forget about cells that are not used anymore, e.g. after a level change
+		if(cells.size() > 4 * count + 1024)
+			cells.clear();
+
+		for(int l = 0; l < localCount; ++l) {
+			int i  = locals[l];
+			int x0 = (int)Math.floor(minX[i] * inverseSize);
+			int y0 = (int)Math.floor(minY[i] * inverseSize);
+			int x1 = (int)Math.floor(maxX[i] * inverseSize);
+			int y1 = (int)Math.floor(maxY[i] * inverseSize);
+
+			// Huge Actors would fill the whole grid
+			if((long)(x1 - x0 + 1) * (y1 - y0 + 1) > maxCells) {
+				promote(i);
+				continue;
+			}
+
+			for(int x = x0; x <= x1; ++x)
+				for(int y = y0; y <= y1; ++y) {
+					Cell cell = cell(x, y);
+
+					// Test against the Actors already in the cell
+					for(int k = 0; k < cell.size; ++k)
+						if(isClose(cell.items[k], i))
+							addPair(cell.items[k], i);
+
+					if(cell.size == cell.items.length)
+						cell.items = Arrays.copyOf(cell.items, cell.size * 2);
+					cell.items[cell.size++] = i;
+				}
+		}
+	}
+
+
+	/**
+	 * Returns the cell at the given coordinates, creating it if needed.
+	 * @param x  horizontal coordinate of the cell
+	 * @param y  vertical coordinate of the cell
+	 * @return   the cell, not null
+	 */
+	private Cell cell(int x, int y) {
+		Long key = ((long)x << 32) | (y & 0xffffffffL);
+		Cell cell = cells.get(key);
+		if(cell == null) {
+			cell = new Cell();
+			cells.put(key, cell);
+		}
+		if(cell.size == 0)
+			used.add(cell);
+		return cell;
+	}
+}
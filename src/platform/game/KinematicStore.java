@@ -0,0 +1,433 @@
+package platform.game;
+
+import java.util.Arrays;
+
+import platform.util.Box;
+import platform.util.Vector;
+
+/**
+ * Stores the kinematic bodies of a World, e.g. moving platforms, in
+ * primitive arrays, one row per body, so that all of them are moved in a
+ * single loop.
+ * <p>
+ * A kinematic body follows a path of waypoints, forward while it is active
+ * and backward otherwise, at one segment per second. Each segment is eased
+ * with <code>-2x^3 + 3x^2</code>, read from a table computed once. Gravity
+ * and collisions do not move it.
+ * <p>
+ * The Actors standing on a body during the interaction pass are its riders:
+ * they are moved along with it by the next integration.
+ * @see World#getKinematics()
+ * @see Actor#carry(Vector)
+ */
+public final class KinematicStore {
+
+	/**
+	 * Number of intervals of the easing table.
+	 */
+	private static final int easingSamples = 1024;
+
+
+	/**
+	 * Easing of the progress along a segment, from 0.0 to 1.0 at regular
+	 * intervals.
+	 */
+	private static final double[] easing = new double[easingSamples + 2];
+
+	static {
+		for(int i = 0; i <= easingSamples; ++i) {
+			double t = (double)i / easingSamples;
+			easing[i] = -2.0 * t * t * t + 3.0 * t * t;
+		}
+		// Lets the end of a segment read one sample past it
+		easing[easingSamples + 1] = 1.0;
+	}
+
+
+	/**
+	 * Angle between the normal of a contact and the opposite of gravity
+	 * below which an Actor stands on a body.
+	 */
+	private static final double standingAngle = Math.PI / 4.0;
+
+
+	/**
+	 * World whose gravity tells the riders from the other Actors.
+	 */
+	private final World world;
+
+
+	/**
+	 * Waypoints of the path of each body, x and y one after the other.
+	 */
+	private double[][] paths;
+
+
+	/**
+	 * Position of each body along its path, in segments.
+	 */
+	private double[]   progress;
+
+
+	/**
+	 * Position along its path each body is headed to, in segments.
+	 */
+	private double[]   target;
+
+
+	/**
+	 * Position of the center of each body.
+	 */
+	private double[]   x, y;
+
+
+	/**
+	 * Movement of each body during the last integration.
+	 */
+	private double[]   dx, dy;
+
+
+	/**
+	 * Half of the width and of the height of each body.
+	 */
+	private double[]   halfWidth, halfHeight;
+
+
+	/**
+	 * Whether each row is in use.
+	 */
+	private boolean[]  used;
+
+
+	/**
+	 * Actor whose Box follows each body.
+	 */
+	private Actor[]    owners;
+
+
+	/**
+	 * Number of rows ever used, free or not.
+	 */
+	private int        size;
+
+
+	/**
+	 * Rows that can be reused.
+	 */
+	private int[]      free;
+
+
+	/**
+	 * Number of rows that can be reused.
+	 */
+	private int        freeCount;
+
+
+	/**
+	 * Actors standing on a body since the last integration.
+	 */
+	private Actor[]    riders;
+
+
+	/**
+	 * Row of the body each rider stands on.
+	 */
+	private int[]      rides;
+
+
+	/**
+	 * Number of riders.
+	 */
+	private int        riderCount;
+
+
+
+	/**
+	 * Creates an empty store.
+	 * @param world  World whose gravity tells the riders, not null
+	 */
+	public KinematicStore(World world) {
+		if(world == null)
+			throw new NullPointerException();
+		this.world      = world;
+		this.paths      = new double[64][];
+		this.progress   = new double[64];
+		this.target     = new double[64];
+		this.x          = new double[64];
+		this.y          = new double[64];
+		this.dx         = new double[64];
+		this.dy         = new double[64];
+		this.halfWidth  = new double[64];
+		this.halfHeight = new double[64];
+		this.used       = new boolean[64];
+		this.owners     = new Actor[64];
+		this.free       = new int[64];
+		this.riders     = new Actor[16];
+		this.rides      = new int[16];
+	}
+
+
+	/**
+	 * Adds a kinematic body, at rest on its path.
+	 * @param path      waypoints of the path, at least one, not null
+	 * @param progress  position along the path, in segments
+	 * @param width     width of the body
+	 * @param height    height of the body
+	 * @param owner     Actor whose Box follows the body, not null
+	 * @return          row of the new body
+	 */
+	public int add(Vector[] path, double progress, double width, double height, Actor owner) {
+		if(owner == null)
+			throw new NullPointerException();
+		int row;
+		if(freeCount > 0)
+			row = free[--freeCount];
+		else {
+			if(size == x.length)
+				grow();
+			row = size++;
+		}
+		used[row]       = true;
+		owners[row]     = owner;
+		owner.kinematic = row + 1;
+		setPath(row, path, width, height);
+		this.progress[row] = Math.max(0.0, Math.min(progress, getSegments(row)));
+		target[row]        = this.progress[row];
+		locate(row);
+		return row;
+	}
+
+
+	/**
+	 * Removes a body, its row may be given to another one.
+	 * @param row  row of a body
+	 */
+	public void remove(int row) {
+		if(!used[row])
+			throw new IllegalArgumentException("row is not used");
+		owners[row].kinematic = 0;
+		used[row]   = false;
+		owners[row] = null;
+		paths[row]  = null;
+		if(freeCount == free.length)
+			free = Arrays.copyOf(free, free.length * 2);
+		free[freeCount++] = row;
+	}
+
+
+	/**
+	 * Removes all bodies.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; ++i)
+			if(used[i])
+				owners[i].kinematic = 0;
+		Arrays.fill(used, 0, size, false);
+		Arrays.fill(owners, 0, size, null);
+		Arrays.fill(paths, 0, size, null);
+		Arrays.fill(riders, 0, riderCount, null);
+		size       = 0;
+		freeCount  = 0;
+		riderCount = 0;
+	}
+
+
+	/**
+	 * Gives a new path to a body, e.g. once placed in the Builder. The body
+	 * stays at its start until it is set active.
+	 * @param row     row of a body
+	 * @param path    waypoints of the path, at least one, not null
+	 * @param width   width of the body
+	 * @param height  height of the body
+	 */
+	public void setPath(int row, Vector[] path, double width, double height) {
+		if(!used[row])
+			throw new IllegalArgumentException("row is not used");
+		if(path.length == 0)
+			throw new IllegalArgumentException("path must have a waypoint");
+		double[] points = new double[path.length * 2];
+		for(int i = 0; i < path.length; ++i) {
+			points[2 * i]     = path[i].getX();
+			points[2 * i + 1] = path[i].getY();
+		}
+		paths[row]      = points;
+		progress[row]   = 0.0;
+		target[row]     = 0.0;
+		halfWidth[row]  = width * 0.5;
+		halfHeight[row] = height * 0.5;
+		locate(row);
+	}
+
+
+	/**
+	 * Sends a body to the end of its path, or back to its start.
+	 * @param row     row of a body
+	 * @param active  whether the body goes to the end of its path
+	 */
+	public void setActive(int row, boolean active) {
+		target[row] = active ? getSegments(row) : 0.0;
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     position of the body along its path, in segments
+	 */
+	public double getProgress(int row) {
+		return progress[row];
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     whether the body reached the end of the path it is headed to
+	 */
+	public boolean isAtRest(int row) {
+		return progress[row] == target[row];
+	}
+
+
+	/**
+	 * Makes an Actor in contact with another one move along with it during
+	 * the next integration, if the other one is a kinematic body and the
+	 * Actor stands on it. Called during the interaction pass.
+	 * @param platform  solid Actor, not null
+	 * @param rider     Actor pushed out of the platform, not null
+	 * @param normal    direction in which the platform pushes the rider, of length 1
+	 * @see World#getContact(Actor, Actor)
+	 */
+	public void ride(Actor platform, Actor rider, Vector normal) {
+		int row = platform.kinematic - 1;
+		if(row < 0)
+			return;
+
+		// The rider stands on the platform if pushed against gravity
+		Vector gravity = world.getGravity();
+		double length  = gravity.getLength();
+		if(length == 0.0 || -normal.dot(gravity) < length * Math.cos(standingAngle))
+			return;
+
+		if(riderCount == riders.length) {
+			riders = Arrays.copyOf(riders, riderCount * 2);
+			rides  = Arrays.copyOf(rides, riderCount * 2);
+		}
+		riders[riderCount] = rider;
+		rides[riderCount]  = row;
+		++riderCount;
+	}
+
+
+	/**
+	 * Moves each body along its path, then its riders by the same amount.
+	 * @param delta  duration of the step, in seconds
+	 */
+	public void integrate(double delta) {
+		for(int i = 0; i < size; ++i) {
+			if(!used[i] || progress[i] == target[i]) {
+				dx[i] = 0.0;
+				dy[i] = 0.0;
+				continue;
+			}
+			if(progress[i] < target[i])
+				progress[i] = Math.min(progress[i] + delta, target[i]);
+			else
+				progress[i] = Math.max(progress[i] - delta, target[i]);
+			double previousX = x[i];
+			double previousY = y[i];
+			locate(i);
+			dx[i] = x[i] - previousX;
+			dy[i] = y[i] - previousY;
+		}
+
+		// An Actor standing on two moving bodies is only carried by the first one
+		for(int r = 0; r < riderCount; ++r) {
+			Actor rider = riders[r];
+			int   row   = rides[r];
+			if(!moved(row) || rider.getWorld() == null)
+				continue;
+			boolean carried = false;
+			for(int s = 0; s < r && !carried; ++s)
+				carried = riders[s] == rider && moved(rides[s]);
+			if(!carried)
+				rider.carry(new Vector(dx[row], dy[row]));
+		}
+		Arrays.fill(riders, 0, riderCount, null);
+		riderCount = 0;
+	}
+
+
+	/**
+	 * Moves the Box of the owner of each body that moved to the body.
+	 */
+	public void sync() {
+		for(int i = 0; i < size; ++i)
+			if(used[i] && moved(i))
+				owners[i].setBox(new Box(
+						new Vector(x[i] - halfWidth[i], y[i] - halfHeight[i]),
+						new Vector(x[i] + halfWidth[i], y[i] + halfHeight[i])));
+	}
+
+
+	/**
+	 * @return  whether a body moved during the last integration
+	 */
+	private boolean moved(int row) {
+		return dx[row] != 0.0 || dy[row] != 0.0;
+	}
+
+
+	/**
+	 * @return  number of segments of the path of a body
+	 */
+	private int getSegments(int row) {
+		return paths[row].length / 2 - 1;
+	}
+
+
+	/**
+	 * Places a body at its position along its path.
+	 */
+	private void locate(int row) {
+		double[] path = paths[row];
+		int segment = Math.min((int)progress[row], getSegments(row) - 1);
+		if(segment < 0) {
+			x[row] = path[0];
+			y[row] = path[1];
+			return;
+		}
+		double eased = ease(progress[row] - segment);
+		int    from  = 2 * segment;
+		x[row] = path[from]     + (path[from + 2] - path[from])     * eased;
+		y[row] = path[from + 1] + (path[from + 3] - path[from + 1]) * eased;
+	}
+
+
+	/**
+	 * @param t  progress along a segment, between 0.0 and 1.0
+	 * @return   eased progress, read from the table
+	 */
+	private static double ease(double t) {
+		double sample = t * easingSamples;
+		int    index  = (int)sample;
+		return easing[index] + (easing[index + 1] - easing[index]) * (sample - index);
+	}
+
+
+	/**
+	 * Doubles the capacity of the columns.
+	 */
+	private void grow() {
+		int length = x.length * 2;
+		paths      = Arrays.copyOf(paths, length);
+		progress   = Arrays.copyOf(progress, length);
+		target     = Arrays.copyOf(target, length);
+		x          = Arrays.copyOf(x, length);
+		y          = Arrays.copyOf(y, length);
+		dx         = Arrays.copyOf(dx, length);
+		dy         = Arrays.copyOf(dy, length);
+		halfWidth  = Arrays.copyOf(halfWidth, length);
+		halfHeight = Arrays.copyOf(halfHeight, length);
+		used       = Arrays.copyOf(used, length);
+		owners     = Arrays.copyOf(owners, length);
+	}
+}
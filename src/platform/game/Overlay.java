@@ -143,12 +143,25 @@ public class Overlay extends Actor {
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.INTERFACE;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		return 4242;
 	}
 
 
+	@Override
+	public boolean isCullable() {
+		// Its bars are drawn beside the Player
+		return false;
+	}
+
+
 	@Override
 	public void register(World world) {
 		super.register(world);
@@ -0,0 +1,346 @@
+package platform.game;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+import platform.util.Box;
+
+/**
+ * Common part of the Broadphases: stores the Boxes of the frame in primitive
+ * arrays and sorts the candidate pairs so they are visited in the order of the
+ * collection of Actors.
+ * <p>
+ * Subclasses only have to report the pairs of local Actors whose Boxes overlap
+ * (or are closer than the margin). Actors that are not local are paired with
+ * every other Actor their masks allow. Static Actors are found through their
+ * own grid.
+ * @see StaticGrid
+ * @see Actor#hasLocalInteractions()
+ */
+abstract class PairBroadphase implements Broadphase {
+
+	/**
+	 * Distance under which two Boxes are considered as close.
+	 */
+	private final double margin;
+
+
+	/**
+	 * Actors of the frame, indexed in the order of the collection.
+	 */
+	protected Actor[]  actors;
+
+
+	/**
+	 * Number of Actors of the frame.
+	 */
+	protected int      count;
+
+
+	/**
+	 * Bounds of the Actors, enlarged by the margin, except those of the
+	 * static Actors, which are kept as in their grid.
+	 */
+	protected double[] minX, minY, maxX, maxY;
+
+
+	/**
+	 * Indices of the local Actors.
+	 */
+	protected int[]    locals;
+
+
+	/**
+	 * Number of local Actors.
+	 */
+	protected int      localCount;
+
+
+	/**
+	 * Indices of the Actors paired with every other Actor.
+	 */
+	private int[]      globals;
+
+
+	/**
+	 * Number of global Actors.
+	 */
+	private int        globalCount;
+
+
+	/**
+	 * Whether each Actor has been paired with every other Actor.
+	 */
+	private boolean[]  promoted;
+
+
+	/**
+	 * Whether each Actor takes part in the interaction pass, only those
+	 * can be the first Actor of a pair.
+	 * @see Actor#getPasses()
+	 */
+	private boolean[]  interacting;
+
+
+	/**
+	 * Categories and collision masks of the Actors.
+	 * @see Category
+	 */
+	private int[]      categories, masks;
+
+
+	/**
+	 * Index in the frame of each slot of the grid of static Actors, -1 if absent.
+	 */
+	private int[]      frameOfSlot;
+
+
+	/**
+	 * Local Actor whose static neighbours are being searched.
+	 */
+	private int        searched;
+
+
+	/**
+	 * Pairs the searched Actor with a close static Actor, created once.
+	 */
+	private final IntConsumer pairStatic;
+
+
+	/**
+	 * Candidate pairs, encoded as (actor << 32 | other), in both directions.
+	 */
+	private long[]     pairs;
+
+
+	/**
+	 * Number of candidate pairs.
+	 */
+	private int        pairCount;
+
+
+	/**
+	 * Number of pairs skipped by the last visit, because the mask of the
+	 * first Actor does not match the category of the other one. Pairs with
+	 * a global Actor are already filtered when built, and never counted.
+	 */
+	private int        rejected;
+
+
+
+	/**
+	 * Base constructor.
+	 * @param margin  distance under which two Boxes are paired, non negative
+	 */
+	protected PairBroadphase(double margin) {
+		if(margin < 0.0)
+			throw new IllegalArgumentException("margin must be non negative");
+		this.margin      = margin;
+		this.actors      = new Actor[64];
+		this.minX        = new double[64];
+		this.minY        = new double[64];
+		this.maxX        = new double[64];
+		this.maxY        = new double[64];
+		this.locals      = new int[64];
+		this.globals     = new int[16];
+		this.pairs       = new long[256];
+		this.promoted    = new boolean[64];
+		this.interacting = new boolean[64];
+		this.categories  = new int[64];
+		this.masks       = new int[64];
+		this.frameOfSlot = new int[64];
+		this.pairStatic  = slot -> {
+			int j = frameOfSlot[slot];
+			if(j >= 0 && isClose(searched, j))
+				addPair(searched, j);
+		};
+	}
+
+
+
+	@Override
+	public void build(Iterable<Actor> list, StaticGrid statics) {
+		// Forget the Actors of the previous frame so they can be collected
+		Arrays.fill(actors, 0, count, null);
+		Arrays.fill(promoted, 0, count, false);
+		count       = 0;
+		localCount  = 0;
+		globalCount = 0;
+		pairCount   = 0;
+		if(frameOfSlot.length < statics.size())
+			frameOfSlot = new int[statics.size()];
+		Arrays.fill(frameOfSlot, 0, statics.size(), -1);
+
+		for(Actor actor : list) {
+			if(count == actors.length)
+				grow();
+
+			actors[count] = actor;
+			interacting[count] = actor.getPasses().contains(Phase.INTERACTION);
+			categories[count]  = actor.getCategory();
+			masks[count]       = actor.getCollisionMask();
+			Box box = actor.getBox();
+			int slot = statics.slotOf(actor);
+			if(slot >= 0) {
+				// Static Actors are only found through their grid. An open Door
+				// has no Box anymore, so it must not be close to anything.
+				frameOfSlot[slot] = count;
+				if(box == null) {
+					minX[count] = minY[count] = Double.POSITIVE_INFINITY;
+					maxX[count] = maxY[count] = Double.NEGATIVE_INFINITY;
+				} else {
+					minX[count] = box.getMin().getX();
+					minY[count] = box.getMin().getY();
+					maxX[count] = box.getMax().getX();
+					maxY[count] = box.getMax().getY();
+				}
+			} else if(box == null || !actor.hasLocalInteractions())
+				promote(count);
+			else {
+				minX[count] = box.getMin().getX() - margin;
+				minY[count] = box.getMin().getY() - margin;
+				maxX[count] = box.getMax().getX() + margin;
+				maxY[count] = box.getMax().getY() + margin;
+				locals[localCount++] = count;
+			}
+			++count;
+		}
+
+		// Let the subclass find the close local Actors
+		collect();
+
+		// Local Actors look for the static Actors around them, their bounds
+		// already include the margin
+		if(statics.size() != 0)
+			for(int l = 0; l < localCount; ++l) {
+				searched = locals[l];
+				if(!promoted[searched])
+					statics.query(minX[searched], minY[searched],
+							maxX[searched], maxY[searched], pairStatic);
+			}
+
+		// Global Actors are close to everyone, but only the directions
+		// allowed by the masks are kept, so that there are fewer pairs to sort
+		for(int g = 0; g < globalCount; ++g) {
+			int global = globals[g];
+			for(int i = 0; i < count; ++i)
+				if(i != global) {
+					if(interacting[global] && (masks[global] & categories[i]) != 0)
+						addDirection(global, i);
+					if(interacting[i] && (masks[i] & categories[global]) != 0)
+						addDirection(i, global);
+				}
+		}
+
+		// Sorting the pairs gives back the order of the nested loops
+		Arrays.sort(pairs, 0, pairCount);
+	}
+
+
+	@Override
+	public void forEachPair(BiConsumer<Actor, Actor> action) {
+		long previous = -1L;
+		rejected = 0;
+		for(int p = 0; p < pairCount; ++p) {
+			long pair = pairs[p];
+			// The same pair can be reported several times
+			if(pair == previous)
+				continue;
+			previous = pair;
+
+			int i = (int)(pair >>> 32);
+			int j = (int)pair;
+			Actor actor = actors[i];
+			Actor other = actors[j];
+			if(actor.getPriority() > other.getPriority()) {
+				if((masks[i] & categories[j]) == 0)
+					++rejected;
+				else
+					action.accept(actor, other);
+			}
+		}
+	}
+
+
+	@Override
+	public int getRejectedPairs() {
+		return rejected;
+	}
+
+
+	/**
+	 * Reports all pairs of local Actors that are close, using addPair.
+	 * Pairs may be reported more than once.
+	 */
+	protected abstract void collect();
+
+
+	/**
+	 * Tests whether the enlarged Boxes of two Actors overlap.
+	 * @param i  index of the first Actor
+	 * @param j  index of the second Actor
+	 * @return   whether both Actors are close
+	 */
+	protected boolean isClose(int i, int j) {
+		return minX[i] <= maxX[j] && minX[j] <= maxX[i]
+				&& minY[i] <= maxY[j] && minY[j] <= maxY[i];
+	}
+
+
+	/**
+	 * Registers a candidate pair, in both directions, skipping the
+	 * directions whose first Actor does not interact.
+	 * @param i  index of the first Actor
+	 * @param j  index of the second Actor
+	 */
+	protected void addPair(int i, int j) {
+		if(interacting[i])
+			addDirection(i, j);
+		if(interacting[j])
+			addDirection(j, i);
+	}
+
+
+	/**
+	 * Registers a candidate pair in a single direction.
+	 * @param i  index of the first Actor
+	 * @param j  index of the second Actor
+	 */
+	private void addDirection(int i, int j) {
+		if(pairCount == pairs.length)
+			pairs = Arrays.copyOf(pairs, pairs.length * 2);
+		pairs[pairCount++] = ((long)i << 32) | j;
+	}
+
+
+	/**
+	 * Pairs an Actor with every other one, e.g. when its Box is too large
+	 * to be handled efficiently by the subclass.
+	 * @param i  index of the Actor
+	 */
+	protected void promote(int i) {
+		if(globalCount == globals.length)
+			globals = Arrays.copyOf(globals, globals.length * 2);
+		globals[globalCount++] = i;
+		promoted[i] = true;
+	}
+
+
+	/**
+	 * Doubles the capacity of the arrays indexed by Actor.
+	 */
+	private void grow() {
+		int length = actors.length * 2;
+		actors = Arrays.copyOf(actors, length);
+		minX   = Arrays.copyOf(minX, length);
+		minY   = Arrays.copyOf(minY, length);
+		maxX   = Arrays.copyOf(maxX, length);
+		maxY   = Arrays.copyOf(maxY, length);
+		locals = Arrays.copyOf(locals, length);
+		promoted = Arrays.copyOf(promoted, length);
+		interacting = Arrays.copyOf(interacting, length);
+		categories = Arrays.copyOf(categories, length);
+		masks = Arrays.copyOf(masks, length);
+	}
+}
@@ -0,0 +1,232 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import platform.util.SortedCollection;
+
+/**
+ * Keeps the Actors of a World taking part in each pass, and calls their
+ * update methods.
+ * <p>
+ * Large groups of consecutive self-contained Actors may be split between
+ * threads. The calls they make to the World are then buffered, and replayed
+ * in the same order as in a sequential run once the group is done.
+ * @see Actor#getPasses()
+ * @see Actor#isSelfContained()
+ */
+final class PassRunner {
+
+	/**
+	 * Passes that have a list of participants. The interaction pass has
+	 * none, the Broadphase needs every Actor.
+	 */
+	private static final Phase[] passes = {Phase.PREUPDATE, Phase.UPDATE, Phase.POSTUPDATE, Phase.DRAW};
+
+
+	/**
+	 * Number of consecutive self-contained Actors above which they are
+	 * updated in parallel.
+	 */
+	private static final int parallelThreshold = 64;
+
+
+	/**
+	 * Current Actors taking part in each pass, in the order of the World.
+	 */
+	private final EnumMap<Phase, SortedCollection<Actor>> participants;
+
+
+	/**
+	 * Threads used to update the self-contained Actors, null if the
+	 * updates are done sequentially.
+	 */
+	private ForkJoinPool pool;
+
+
+	/**
+	 * Consecutive self-contained Actors waiting to be updated.
+	 */
+	private final ArrayList<Actor> group = new ArrayList<Actor>();
+
+
+	/**
+	 * Calls to the World made by the current thread while updating a group of
+	 * self-contained Actors, replayed afterwards. Empty on the main thread.
+	 */
+	private final ThreadLocal<List<Runnable>> deferred = new ThreadLocal<List<Runnable>>();
+
+
+
+	/**
+	 * Creates empty passes, run sequentially.
+	 */
+	PassRunner() {
+		this.participants = new EnumMap<Phase, SortedCollection<Actor>>(Phase.class);
+		for(Phase pass : passes)
+			this.participants.put(pass, new SortedCollection<Actor>(Actor::getOrder));
+	}
+
+
+
+	/**
+	 * Adds an Actor added to the World to the passes it takes part in.
+	 * @param actor  an Actor, not null
+	 */
+	void add(Actor actor) {
+		for(Phase pass : actor.getPasses()) {
+			SortedCollection<Actor> list = participants.get(pass);
+			if(list != null)
+				list.add(actor);
+		}
+	}
+
+
+	/**
+	 * Removes an Actor removed from the World from all passes.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		for(SortedCollection<Actor> list : participants.values())
+			list.remove(actor);
+	}
+
+
+	/**
+	 * Removes all Actors.
+	 */
+	void clear() {
+		for(SortedCollection<Actor> list : participants.values())
+			list.clear();
+	}
+
+
+	/**
+	 * Cleans the removed Actors, while no pass is in progress.
+	 * @see SortedCollection#compact()
+	 */
+	void compact() {
+		for(SortedCollection<Actor> list : participants.values())
+			list.compact();
+	}
+
+
+	/**
+	 * @param pass  a pass, other than the interaction pass, not null
+	 * @return      the Actors taking part in it, in the order of the World
+	 */
+	SortedCollection<Actor> get(Phase pass) {
+		return participants.get(pass);
+	}
+
+
+	/**
+	 * Sets the number of threads used to update the self-contained Actors.
+	 * @param threads  number of threads, 1 or less to update all Actors sequentially
+	 */
+	void setParallelism(int threads) {
+		if(pool != null)
+			pool.shutdown();
+		pool = threads > 1 ? new ForkJoinPool(threads) : null;
+	}
+
+
+	/**
+	 * @return  buffer of the calls to the World made by the current thread,
+	 *          to be replayed after its group, or null on the main thread
+	 */
+	List<Runnable> getDeferred() {
+		return deferred.get();
+	}
+
+
+	/**
+	 * Calls an update method on each awake Actor taking part in a pass, in
+	 * the order of the World.
+	 * @param pass    a pass, other than the interaction pass, not null
+	 * @param action  the update method to call, not null
+	 */
+	void forEach(Phase pass, Consumer<Actor> action) {
+		SortedCollection<Actor> list = participants.get(pass);
+		if(pool == null) {
+			for(Actor a : list)
+				if(!a.asleep)
+					action.accept(a);
+			return;
+		}
+		for(Actor a : list) {
+			if(a.asleep)
+				continue;
+			if(a.isSelfContained())
+				group.add(a);
+			else {
+				updateGroup(action);
+				action.accept(a);
+			}
+		}
+		updateGroup(action);
+	}
+
+
+	/**
+	 * Updates the waiting group of self-contained Actors, in parallel if it
+	 * is large enough.
+	 * @param action  the update method to call, not null
+	 */
+	private void updateGroup(Consumer<Actor> action) {
+		if(group.size() < parallelThreshold) {
+			for(Actor a : group)
+				action.accept(a);
+			group.clear();
+			return;
+		}
+
+		// Each slice is a contiguous part of the group, with its own buffer
+		int slices = Math.min(pool.getParallelism() * 4, group.size() / (parallelThreshold / 4));
+		ArrayList<Callable<Void>> tasks    = new ArrayList<Callable<Void>>(slices);
+		ArrayList<List<Runnable>> buffers = new ArrayList<List<Runnable>>(slices);
+		for(int s = 0; s < slices; ++s) {
+			int from = group.size() * s / slices;
+			int to   = group.size() * (s + 1) / slices;
+			List<Runnable> buffer = new ArrayList<Runnable>();
+			buffers.add(buffer);
+			tasks.add(() -> {
+				deferred.set(buffer);
+				try {
+					for(int i = from; i < to; ++i)
+						action.accept(group.get(i));
+				} finally {
+					deferred.remove();
+				}
+				return null;
+			});
+		}
+
+		try {
+			for(Future<Void> future : pool.invokeAll(tasks))
+				future.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException)e.getCause();
+			if(e.getCause() instanceof Error)
+				throw (Error)e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			group.clear();
+		}
+
+		// Replay the calls to the World, in the order of the Actors
+		for(List<Runnable> buffer : buffers)
+			for(Runnable call : buffer)
+				call.run();
+	}
+}
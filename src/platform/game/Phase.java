@@ -0,0 +1,38 @@
+package platform.game;
+
+/**
+ * Phases of a step of the Simulator, in the order in which they run.
+ * Used to report where the time of a frame is spent, and to tell in which
+ * passes an Actor takes part.
+ * @see Simulator#setProfiling(boolean)
+ * @see Actor#getPasses()
+ */
+public enum Phase {
+
+	/** Loading of the next Level, if asked */
+	TRANSITION,
+
+	/** Smoothing of the View */
+	VIEW,
+
+	/** Call of preUpdate on each Actor */
+	PREUPDATE,
+
+	/** Search of the close Actors and call of interact on each pair */
+	INTERACTION,
+
+	/** Call of update on each Actor */
+	UPDATE,
+
+	/** Call of postUpdate on each Actor */
+	POSTUPDATE,
+
+	/** Linking, keyboard shortcuts and saves */
+	CONTROL,
+
+	/** Addition and removal of the registered and unregistered Actors */
+	MAINTENANCE,
+
+	/** Call of draw on each Actor */
+	DRAW;
+}
@@ -0,0 +1,440 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import platform.util.Box;
+import platform.util.Geometry;
+import platform.util.Vector;
+
+/**
+ * Stores the position, velocity and half-size of the moving bodies of a
+ * World in primitive arrays, one row per body, so that gravity is applied to
+ * all of them in a single loop.
+ * <p>
+ * A row may have an owner, whose Box is moved to the row after each
+ * integration. Rows of removed bodies are reused.
+ * <p>
+ * Swept bodies, e.g. fast projectiles, are tested against the solid Actors on
+ * their way: a body that would go through one of them in a single step is
+ * stopped just inside it instead, so that it interacts with it as usual.
+ * @see World#getPhysics()
+ */
+public final class PhysicsStore {
+
+	/**
+	 * Depth by which a swept body stopped by an obstacle enters it, so that
+	 * both Boxes overlap during the next interaction pass.
+	 */
+	private static final double skin = 1e-3;
+
+
+	/**
+	 * World whose solid Actors stop the swept bodies.
+	 */
+	private final World world;
+
+
+	/**
+	 * Position of the center of each body.
+	 */
+	private double[]  x, y;
+
+
+	/**
+	 * Velocity of each body.
+	 */
+	private double[]  vx, vy;
+
+
+	/**
+	 * Half of the width and of the height of each body.
+	 */
+	private double[]  halfWidth, halfHeight;
+
+
+	/**
+	 * Half of the width and of the height of the part of each swept body
+	 * that must not go through obstacles.
+	 */
+	private double[]  sweptWidth, sweptHeight;
+
+
+	/**
+	 * Whether each body is tested against the obstacles on its way.
+	 */
+	private boolean[] swept;
+
+
+	/**
+	 * Whether each body falls and moves with its velocity. False for the
+	 * free rows.
+	 */
+	private boolean[] moving;
+
+
+	/**
+	 * Whether each row is in use.
+	 */
+	private boolean[] used;
+
+
+	/**
+	 * Actor whose Box follows each body, or null.
+	 */
+	private Actor[]   owners;
+
+
+	/**
+	 * Boxes of the parts of an obstacle, reused by each sweep.
+	 */
+	private final ArrayList<Box> parts;
+
+
+	/**
+	 * Number of rows ever used, free or not.
+	 */
+	private int       size;
+
+
+	/**
+	 * Rows that can be reused.
+	 */
+	private int[]     free;
+
+
+	/**
+	 * Number of rows that can be reused.
+	 */
+	private int       freeCount;
+
+
+
+	/**
+	 * Creates an empty store.
+	 * @param world  World whose solid Actors stop the swept bodies, not null
+	 */
+	public PhysicsStore(World world) {
+		if(world == null)
+			throw new NullPointerException();
+		this.world       = world;
+		this.x           = new double[64];
+		this.y           = new double[64];
+		this.vx          = new double[64];
+		this.vy          = new double[64];
+		this.halfWidth   = new double[64];
+		this.halfHeight  = new double[64];
+		this.sweptWidth  = new double[64];
+		this.sweptHeight = new double[64];
+		this.swept       = new boolean[64];
+		this.moving      = new boolean[64];
+		this.used        = new boolean[64];
+		this.owners      = new Actor[64];
+		this.free        = new int[64];
+		this.parts       = new ArrayList<Box>();
+	}
+
+
+	/**
+	 * Adds a moving body.
+	 * @param position  center of the body, not null
+	 * @param velocity  velocity of the body, not null
+	 * @param width     width of the body
+	 * @param height    height of the body
+	 * @param owner     Actor whose Box follows the body, may be null
+	 * @return          row of the new body
+	 */
+	public int add(Vector position, Vector velocity, double width, double height, Actor owner) {
+		int row;
+		if(freeCount > 0)
+			row = free[--freeCount];
+		else {
+			if(size == x.length)
+				grow();
+			row = size++;
+		}
+		x[row]          = position.getX();
+		y[row]          = position.getY();
+		vx[row]         = velocity.getX();
+		vy[row]         = velocity.getY();
+		halfWidth[row]  = width * 0.5;
+		halfHeight[row] = height * 0.5;
+		moving[row]     = true;
+		swept[row]      = false;
+		used[row]       = true;
+		owners[row]     = owner;
+		return row;
+	}
+
+
+	/**
+	 * Removes a body, its row may be given to another one.
+	 * @param row  row of a body
+	 */
+	public void remove(int row) {
+		if(!used[row])
+			throw new IllegalArgumentException("row is not used");
+		used[row]   = false;
+		moving[row] = false;
+		owners[row] = null;
+		if(freeCount == free.length)
+			free = Arrays.copyOf(free, free.length * 2);
+		free[freeCount++] = row;
+	}
+
+
+	/**
+	 * Removes all bodies.
+	 */
+	public void clear() {
+		Arrays.fill(used, 0, size, false);
+		Arrays.fill(moving, 0, size, false);
+		Arrays.fill(owners, 0, size, null);
+		size      = 0;
+		freeCount = 0;
+	}
+
+
+	/**
+	 * Applies gravity to the velocity of each moving body, then its velocity
+	 * to its position, exactly as <code>velocity.add(gravity.mul(delta))</code>
+	 * and <code>position.add(velocity.mul(delta))</code> would, unless a
+	 * swept body would go through an obstacle. Swept bodies are only tested
+	 * when they move fast enough to skip one.
+	 * @param gravity  acceleration, not null
+	 * @param delta    duration of the step, in seconds
+	 */
+	public void integrate(Vector gravity, double delta) {
+		double gx = gravity.getX() * delta;
+		double gy = gravity.getY() * delta;
+		for(int i = 0; i < size; ++i)
+			if(moving[i]) {
+				vx[i] += gx;
+				vy[i] += gy;
+				double dx = vx[i] * delta;
+				double dy = vy[i] * delta;
+				// A body moving by less than half of its swept part still
+				// overlaps the obstacles on its way at the end of the step
+				if(swept[i] && (Math.abs(dx) > sweptWidth[i] || Math.abs(dy) > sweptHeight[i])) {
+					double fraction = sweep(i, dx, dy);
+					dx *= fraction;
+					dy *= fraction;
+				}
+				x[i]  += dx;
+				y[i]  += dy;
+			}
+	}
+
+
+	/**
+	 * Finds how far a swept body can move before going through a solid
+	 * Actor. Obstacles the body already overlaps, or in which it ends its
+	 * movement, are left to the interactions.
+	 * @param i   row of a swept body
+	 * @param dx  horizontal movement of the body
+	 * @param dy  vertical movement of the body
+	 * @return    fraction of the movement to apply
+	 */
+	private double sweep(int i, double dx, double dy) {
+		double x0 = x[i] - sweptWidth[i];
+		double y0 = y[i] - sweptHeight[i];
+		double x1 = x[i] + sweptWidth[i];
+		double y1 = y[i] + sweptHeight[i];
+		Box path = new Box(
+				new Vector(Math.min(x0, x0 + dx), Math.min(y0, y0 + dy)),
+				new Vector(Math.max(x1, x1 + dx), Math.max(y1, y1 + dy)));
+
+		// Find the first obstacle entered during the movement
+		Actor owner = owners[i];
+		int mask = owner == null ? Category.ALL : owner.getCollisionMask();
+		double first = Double.POSITIVE_INFINITY;
+		Box obstacle = null;
+		for(Actor other : world.queryBox(path)) {
+			if(other == owner || !other.isSolid() || (mask & other.getCategory()) == 0)
+				continue;
+			other.getParts(path, parts);
+			for(Box box : parts) {
+				double time = Geometry.timeOfImpact(x0, y0, x1, y1, dx, dy,
+						box.getMin().getX(), box.getMin().getY(), box.getMax().getX(), box.getMax().getY());
+				if(time > 0.0 && time < first) {
+					first = time;
+					obstacle = box;
+				}
+			}
+			parts.clear();
+		}
+		if(obstacle == null)
+			return 1.0;
+
+		// A body ending inside the obstacle is stopped by the interactions
+		if(x0 + dx < obstacle.getMax().getX() && obstacle.getMin().getX() < x1 + dx
+				&& y0 + dy < obstacle.getMax().getY() && obstacle.getMin().getY() < y1 + dy)
+			return 1.0;
+
+		// Otherwise it would go through, stop it just inside
+		return Math.min(1.0, first + skin / Math.sqrt(dx * dx + dy * dy));
+	}
+
+
+	/**
+	 * Moves the Box of the owner of each moving body to the body. Boxes are
+	 * immutable, so a new one is only created for the owners that moved.
+	 */
+	public void sync() {
+		for(int i = 0; i < size; ++i)
+			if(moving[i] && owners[i] != null) {
+				double x0 = x[i] - halfWidth[i];
+				double y0 = y[i] - halfHeight[i];
+				double x1 = x[i] + halfWidth[i];
+				double y1 = y[i] + halfHeight[i];
+				Box box = owners[i].getBox();
+				if(box != null
+						&& box.getMin().getX() == x0 && box.getMin().getY() == y0
+						&& box.getMax().getX() == x1 && box.getMax().getY() == y1)
+					continue;
+				owners[i].setBox(new Box(new Vector(x0, y0), new Vector(x1, y1)));
+			}
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     position of the center of the body, not null
+	 * @see #getX(int)
+	 */
+	public Vector getPosition(int row) {
+		return new Vector(x[row], y[row]);
+	}
+
+
+	/**
+	 * Reads the position without creating a Vector, e.g. in a loop.
+	 * @param row  row of a body
+	 * @return     horizontal position of the center of the body
+	 */
+	public double getX(int row) {
+		return x[row];
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     vertical position of the center of the body
+	 * @see #getX(int)
+	 */
+	public double getY(int row) {
+		return y[row];
+	}
+
+
+	/**
+	 * @param row       row of a body
+	 * @param position  new position of the center of the body, not null
+	 */
+	public void setPosition(int row, Vector position) {
+		x[row] = position.getX();
+		y[row] = position.getY();
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     velocity of the body, not null
+	 * @see #getVelocityX(int)
+	 */
+	public Vector getVelocity(int row) {
+		return new Vector(vx[row], vy[row]);
+	}
+
+
+	/**
+	 * Reads the velocity without creating a Vector, e.g. in a loop.
+	 * @param row  row of a body
+	 * @return     horizontal velocity of the body
+	 */
+	public double getVelocityX(int row) {
+		return vx[row];
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     vertical velocity of the body
+	 * @see #getVelocityX(int)
+	 */
+	public double getVelocityY(int row) {
+		return vy[row];
+	}
+
+
+	/**
+	 * @param row       row of a body
+	 * @param velocity  new velocity of the body, not null
+	 */
+	public void setVelocity(int row, Vector velocity) {
+		vx[row] = velocity.getX();
+		vy[row] = velocity.getY();
+	}
+
+
+	/**
+	 * @param row  row of a body
+	 * @return     whether the body falls and moves with its velocity
+	 */
+	public boolean isMoving(int row) {
+		return moving[row];
+	}
+
+
+	/**
+	 * Stops or restarts a body, e.g. once it landed somewhere.
+	 * @param row     row of a body
+	 * @param moving  whether the body falls and moves with its velocity
+	 */
+	public void setMoving(int row, boolean moving) {
+		if(!used[row])
+			throw new IllegalArgumentException("row is not used");
+		this.moving[row] = moving;
+	}
+
+
+	/**
+	 * Makes a body stop at the first solid Actor on its way, instead of going
+	 * through it when it moves by more than the Actor's size in one step.
+	 * Only the Actors whose category is in the collision mask of the owner
+	 * of the body are obstacles.
+	 * @param row     row of a body
+	 * @param width   width of the part of the body that must not go through
+	 *                obstacles, 0.0 for its center only
+	 * @param height  height of that part
+	 */
+	public void setSwept(int row, double width, double height) {
+		if(!used[row])
+			throw new IllegalArgumentException("row is not used");
+		if(width < 0.0 || height < 0.0)
+			throw new IllegalArgumentException("size must be non negative");
+		swept[row]       = true;
+		sweptWidth[row]  = width * 0.5;
+		sweptHeight[row] = height * 0.5;
+	}
+
+
+	/**
+	 * Doubles the capacity of the columns.
+	 */
+	private void grow() {
+		int length = x.length * 2;
+		x           = Arrays.copyOf(x, length);
+		y           = Arrays.copyOf(y, length);
+		vx          = Arrays.copyOf(vx, length);
+		vy          = Arrays.copyOf(vy, length);
+		halfWidth   = Arrays.copyOf(halfWidth, length);
+		halfHeight  = Arrays.copyOf(halfHeight, length);
+		sweptWidth  = Arrays.copyOf(sweptWidth, length);
+		sweptHeight = Arrays.copyOf(sweptHeight, length);
+		swept       = Arrays.copyOf(swept, length);
+		moving      = Arrays.copyOf(moving, length);
+		used        = Arrays.copyOf(used, length);
+		owners      = Arrays.copyOf(owners, length);
+	}
+}
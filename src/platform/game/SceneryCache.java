@@ -0,0 +1,280 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import platform.util.Box;
+import platform.util.ImageOutput;
+import platform.util.Input;
+import platform.util.Output;
+import platform.util.Sprite;
+import platform.util.Vector;
+
+/**
+ * Draws the scenery of a World into cached images, one per square chunk,
+ * so that each frame only draws the images of the chunks in the View.
+ * <p>
+ * Images are drawn at a power of two pixels per unit, the first one above
+ * the resolution of the View, and all are drawn again when it changes. The
+ * image of a chunk is dropped when an Actor of the scenery over it is added,
+ * moved, removed or redrawn, and when it is far from the View.
+ * <p>
+ * All images are drawn at once, in place of the first Actor cached, so only
+ * the Actors of the scenery with the priority of the Blocks are cached. The
+ * others are drawn as usual.
+ * @see Actor#isScenery()
+ */
+final class SceneryCache {
+
+	/**
+	 * Square part of the World, drawn once.
+	 */
+	private static final class Chunk {
+		private final Box    box;
+		private final Sprite sprite;
+
+		private Chunk(Box box, Sprite sprite) {
+			this.box    = box;
+			this.sprite = sprite;
+		}
+	}
+
+
+	/**
+	 * Size of a chunk.
+	 */
+	public static final double chunkSize = 8.0;
+
+
+	/**
+	 * Highest resolution of the images, in pixels per unit.
+	 */
+	public static final int maxResolution = 64;
+
+
+	/**
+	 * Priority of the Actors cached, that of the Blocks.
+	 */
+	public static final int priority = 0;
+
+
+	/**
+	 * World whose scenery is drawn.
+	 */
+	private final World world;
+
+
+	/**
+	 * Images of the chunks drawn, by coordinates.
+	 */
+	private final HashMap<Long, Chunk> chunks;
+
+
+	/**
+	 * Box of each Actor of the scenery when it was added or last moved.
+	 */
+	private final IdentityHashMap<Actor, Box> boxes;
+
+
+	/**
+	 * Resolution of the images, in pixels per unit, 0 if none was drawn.
+	 */
+	private int resolution;
+
+
+	/**
+	 * Number of chunks drawn into a new image since the last frame.
+	 */
+	private int rendered;
+
+
+
+	/**
+	 * Creates a cache without any image.
+	 * @param world  World whose scenery is drawn, not null
+	 */
+	SceneryCache(World world) {
+		if(world == null)
+			throw new NullPointerException();
+		this.world  = world;
+		this.chunks = new HashMap<Long, Chunk>();
+		this.boxes  = new IdentityHashMap<Actor, Box>();
+	}
+
+
+
+	/**
+	 * @return  number of chunks whose image is kept
+	 */
+	int getChunks() {
+		return chunks.size();
+	}
+
+
+	/**
+	 * @return  number of chunks drawn into a new image during the last frame
+	 */
+	int getRenderedChunks() {
+		return rendered;
+	}
+
+
+	/**
+	 * @param actor  an Actor, not null
+	 * @return       whether the Actor is drawn from the images
+	 */
+	boolean contains(Actor actor) {
+		return boxes.containsKey(actor);
+	}
+
+
+	/**
+	 * Drops the images under an Actor added to the World, if it is part of
+	 * the scenery and has the priority of the images.
+	 * @param actor  an Actor, not null
+	 */
+	void add(Actor actor) {
+		Box box = actor.getBox();
+		if(box == null || !actor.isScenery() || actor.getPriority() != priority)
+			return;
+		boxes.put(actor, box);
+		invalidate(box);
+	}
+
+
+	/**
+	 * Drops the images under an Actor removed from the World.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		Box box = boxes.remove(actor);
+		if(box != null)
+			invalidate(box);
+	}
+
+
+	/**
+	 * Drops the images under an Actor whose Box has been set, before and
+	 * after, if the Box changed.
+	 * @param actor  an Actor, not null
+	 */
+	void moved(Actor actor) {
+		Box box = boxes.get(actor);
+		if(box != null && box.equals(actor.getBox()))
+			return;
+		remove(actor);
+		add(actor);
+	}
+
+
+	/**
+	 * Drops the images of the chunks intersecting an area.
+	 * @param area  Box delimiting the zone, not null
+	 */
+	void invalidate(Box area) {
+		if(chunks.isEmpty())
+			return;
+		long x0 = coordinate(area.getMin().getX()), y0 = coordinate(area.getMin().getY());
+		long x1 = coordinate(area.getMax().getX()), y1 = coordinate(area.getMax().getY());
+		for(long x = x0; x <= x1; ++x)
+			for(long y = y0; y <= y1; ++y)
+				chunks.remove(key(x, y));
+	}
+
+
+	/**
+	 * Forgets all Actors and images, e.g. when the World is cleared.
+	 */
+	void clear() {
+		chunks.clear();
+		boxes.clear();
+	}
+
+
+	/**
+	 * Draws the images of the chunks in the View, drawing the scenery into
+	 * those missing, and drops the images far from the View.
+	 * @param input   Input given to the Actors drawn, not null
+	 * @param output  where to draw, in the coordinates of the World, not null
+	 * @param pixels  resolution of the View, in pixels per unit
+	 */
+	void draw(Input input, Output output, double pixels) {
+		rendered = 0;
+		int wanted = 1;
+		while(wanted < pixels && wanted < maxResolution)
+			wanted *= 2;
+		if(wanted != resolution) {
+			chunks.clear();
+			resolution = wanted;
+		}
+
+		Box view = output.getBox();
+		long x0 = coordinate(view.getMin().getX()), y0 = coordinate(view.getMin().getY());
+		long x1 = coordinate(view.getMax().getX()), y1 = coordinate(view.getMax().getY());
+		for(long x = x0; x <= x1; ++x)
+			for(long y = y0; y <= y1; ++y) {
+				Long key = key(x, y);
+				Chunk chunk = chunks.get(key);
+				if(chunk == null) {
+					chunk = render(input, x, y);
+					chunks.put(key, chunk);
+				}
+				if(chunk.sprite != null)
+					output.drawSprite(chunk.sprite, chunk.box);
+			}
+
+		// Images are kept one chunk around the View
+		Iterator<Long> keys = chunks.keySet().iterator();
+		while(keys.hasNext()) {
+			long key = keys.next();
+			long x = key >> 32;
+			long y = (int)key;
+			if(x < x0 - 1 || x > x1 + 1 || y < y0 - 1 || y > y1 + 1)
+				keys.remove();
+		}
+	}
+
+
+	/**
+	 * Draws the scenery over a chunk, in the order of the World.
+	 * @return  the chunk, without image if it has no scenery
+	 */
+	private Chunk render(Input input, long x, long y) {
+		Box box = new Box(new Vector(x * chunkSize, y * chunkSize),
+				new Vector((x + 1) * chunkSize, (y + 1) * chunkSize));
+		List<Actor> scenery = new ArrayList<Actor>();
+		for(Actor actor : world.queryBox(box))
+			if(boxes.containsKey(actor))
+				scenery.add(actor);
+		if(scenery.isEmpty())
+			return new Chunk(box, null);
+
+		// Lowest priority first, then as the World draws equal ones
+		scenery.sort((a, b) -> a.compareTo(b) != 0 ? -a.compareTo(b) : Long.compare(b.sequence, a.sequence));
+		int size = (int)(chunkSize * resolution);
+		ImageOutput image = new ImageOutput(box, size, size);
+		for(Actor actor : scenery)
+			actor.draw(input, image);
+		++rendered;
+		return new Chunk(box, image.toSprite());
+	}
+
+
+	/**
+	 * @return  coordinate of the chunks containing a coordinate of the World
+	 */
+	private static long coordinate(double value) {
+		return (long)Math.floor(value / chunkSize);
+	}
+
+
+	/**
+	 * @return  key of the chunk at some coordinates
+	 */
+	private static long key(long x, long y) {
+		return (x << 32) | (y & 0xffffffffL);
+	}
+}
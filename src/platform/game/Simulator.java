@@ -9,7 +9,12 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiConsumer;
 
+import platform.game.block.Tilemap;
+import platform.game.block.Wall;
 import platform.game.character.Player;
 import platform.game.graphic.BackgroundImage;
 import platform.game.level.Builder;
@@ -23,6 +28,7 @@ import platform.util.Input;
 import platform.util.Loader;
 import platform.util.Output;
 import platform.util.SortedCollection;
+import platform.util.Translation;
 import platform.util.Vector;
 import platform.util.View;
 
@@ -32,6 +38,32 @@ import platform.util.View;
  */
 public class Simulator implements World {
 
+	/**
+	 * Default number of steps of the simulation per second.
+	 */
+	public static final double defaultTickRate = 60.0;
+
+
+	/**
+	 * Part of the distance to the expected View covered in 1/60 second.
+	 */
+	private static final double smoothing = 0.1;
+
+
+	/**
+	 * Default distance to the center of the World out of which the Actors
+	 * that can sleep fall asleep, a few times the radius of the View.
+	 */
+	public static final double defaultActiveRadius = 4.0 * defaultRadius;
+
+
+	/**
+	 * Default distance to the center of the World within which the streamable
+	 * Actors are kept in memory, twice the default active radius.
+	 */
+	public static final double defaultStreamRadius = 2.0 * defaultActiveRadius;
+
+
 	private Loader loader;
 
 
@@ -59,6 +91,14 @@ public class Simulator implements World {
 	private       double currentRadius;
 
 
+	/**
+	 * Center and radius of the View at the end of the previous step,
+	 * used to interpolate the drawing.
+	 */
+	private       Vector previousCenter;
+	private       double previousRadius;
+
+
 	/**
 	 * Expected center of the View.
 	 */
@@ -89,6 +129,130 @@ public class Simulator implements World {
 	private ArrayList<Actor>        unregistered;
 
 
+	/**
+	 * Finds the pairs of Actors that may interact.
+	 */
+	private Broadphase broadphase;
+
+
+	/**
+	 * Current Actors taking part in each pass, run in parallel if asked.
+	 * @see Actor#getPasses()
+	 */
+	private PassRunner       passes;
+
+
+	/**
+	 * Spatial index of the current Actors, answering the queries.
+	 */
+	private ActorIndex       index;
+
+
+	/**
+	 * Moving bodies of the current Actors, moved after the update pass.
+	 */
+	private PhysicsStore     physics;
+
+
+	/**
+	 * Kinematic bodies of the current Actors, moved with their riders
+	 * after the update pass.
+	 */
+	private KinematicStore   kinematics;
+
+
+	/**
+	 * Contacts of the pairs that overlapped during the last steps.
+	 */
+	private ContactCache     contacts;
+
+
+	/**
+	 * Puts to sleep the current Actors whose updates may be skipped.
+	 * @see Actor#canSleep()
+	 */
+	private SleepTracker     sleepers;
+
+
+	/**
+	 * Actors around the View, found at the beginning of each frame.
+	 */
+	private final ArrayList<Actor> nearby = new ArrayList<Actor>();
+
+
+	/**
+	 * Enlargement of the View in which the Actors are drawn, so that the
+	 * Sprites turned beyond their Box, or shifted back by the interpolation,
+	 * are not culled.
+	 */
+	private static final double cullMargin = 1.0;
+
+
+	/**
+	 * Number of frames drawn, used to mark the Actors found in the View.
+	 */
+	private long             frame;
+
+
+	/**
+	 * Number of Actors drawn and skipped during the last frame.
+	 */
+	private int              drawn, culled;
+
+
+	/**
+	 * Saves the streamable Actors far from the center, and reads them back.
+	 * @see Actor#isStreamable()
+	 */
+	private ChunkStreamer    streamer;
+
+
+	/**
+	 * Merges the adjacent Blocks into Walls, and merges them again when they change.
+	 * @see Wall
+	 */
+	private WallMerger       walls;
+
+
+	/**
+	 * Images of the scenery, drawn again only where it changes.
+	 * @see Actor#isScenery()
+	 */
+	private SceneryCache     scenery;
+
+
+	/**
+	 * Lets the first Actor of a pair interact with the second one, then
+	 * wakes up both of them if they are not at rest anymore.
+	 */
+	private final BiConsumer<Actor, Actor> interaction = (actor, other) -> {
+		actor.interact(other);
+		if (actor.asleep)
+			sleepers.poke(actor);
+		if (other.asleep)
+			sleepers.poke(other);
+	};
+
+
+	/**
+	 * Current Actors that never move.
+	 * @see Actor#isStatic()
+	 */
+	private LinkedHashSet<Actor> statics;
+
+
+	/**
+	 * Grid of the static Actors, used by the Broadphase.
+	 */
+	private StaticGrid       staticGrid;
+
+
+	/**
+	 * Indicates whether the grid of static Actors has to be rebuilt.
+	 */
+	private boolean          staticsChanged;
+
+
 	/**
 	 * Indicates the current Level.
 	 */
@@ -126,6 +290,18 @@ public class Simulator implements World {
 	 */
 	private boolean toSave;
 
+	/**
+	 * Time spent in each Phase since profiling was enabled, in nanoseconds.
+	 * Null if profiling is disabled.
+	 */
+	private long[]  phaseTimes;
+
+
+	/**
+	 * Moment at which the current Phase began, in nanoseconds.
+	 */
+	private long    phaseStart;
+
 	/**
 	 * Image bank of backgrounds, to change with the shortcut I
 	 */
@@ -152,13 +328,28 @@ public class Simulator implements World {
 		// Default starting position for the View
 		this.currentCenter   = defaultCenter;
 		this.currentRadius   = defaultRadius ;
+		this.previousCenter  = currentCenter;
+		this.previousRadius  = currentRadius;
 		this.expectedCenter  = currentCenter;
 		this.expectedRadius  = currentRadius;
 
 		// Creating the arrays containing all Actors
 		this.registered      = new ArrayList<Actor>();
-		this.actors          = new SortedCollection<Actor>();
+		this.actors          = new SortedCollection<Actor>(Actor::getOrder);
 		this.unregistered    = new ArrayList<Actor>();
+		this.passes          = new PassRunner();
+		this.broadphase      = new GridBroadphase();
+		this.index           = new ActorIndex();
+		this.physics         = new PhysicsStore(this);
+		this.kinematics      = new KinematicStore(this);
+		this.contacts        = new ContactCache();
+		this.sleepers        = new SleepTracker(index, defaultCenter, defaultActiveRadius);
+		this.streamer        = new ChunkStreamer(this, defaultStreamRadius);
+		this.walls           = new WallMerger(this);
+		this.scenery         = new SceneryCache(this);
+		this.statics         = new LinkedHashSet<Actor>();
+		this.staticGrid      = new StaticGrid();
+		this.staticsChanged  = false;
 
 		// The World has to load a Level to begin!
 		this.current         = null;
@@ -182,11 +373,25 @@ public class Simulator implements World {
 
 
 	/**
-	 * Simulate a single step of the simulation.
+	 * Simulate a single step of the simulation and draw it.
 	 * @param input input object to use, not null
 	 * @param output output object to use, not null
+	 * @see #simulate(Input, Output)
+	 * @see #render(Input, Output, double)
 	 */
 	public void update(Input input, Output output) {
+		simulate(input, output);
+		render(input, output, 1.0);
+	}
+
+
+	/**
+	 * Simulate a single step of the simulation, without drawing anything.
+	 * @param input input object to use, its delta time is the duration of the step, not null
+	 * @param output output object to use, only its Box is used, not null
+	 */
+	public void simulate(Input input, Output output) {
+		startPhases();
 
 		/***** LEVEL TRANSITION *****/
 		// If transition is set to true, either by an
@@ -207,7 +412,7 @@ public class Simulator implements World {
 			next = null;
 
 			// Clear all Actors contained in the World
-			actors.clear();
+			clearActors();
 			registered.clear();
 			unregistered.clear();
 
@@ -216,12 +421,17 @@ public class Simulator implements World {
 
 			/***** ACTOR MAINTENANCE *****/
 			maintainActors();
+			mergeTiles();
+			mergeWalls();
 		}
+		endPhase(Phase.TRANSITION);
 
 
 		/***** SETTING THE VIEW *****/
-		// Smooth transition of the view
-		double factor = 0.1 ;
+		// Smooth transition of the view, whatever the duration of the step
+		double factor = 1.0 - Math.pow(1.0 - smoothing, input.getDeltaTime() * 60.0);
+		previousCenter = currentCenter;
+		previousRadius = currentRadius;
 		currentCenter = currentCenter.mul(1.0 -
 				factor).add(expectedCenter.mul(factor));
 		currentRadius = currentRadius * (1.0 - factor) +
@@ -230,54 +440,78 @@ public class Simulator implements World {
 		// Sets the view
 		View view = new View(input, output);
 		view.setTarget(currentCenter, currentRadius);
+		endPhase(Phase.VIEW);
 
 
 		/***** ALL ACTOR UPDATES *****/
 
+		// Actors that got a Box since they were added (e.g. a Door closed
+		// since) are moved into the index, to be found by the queries
+		index.indexUnbounded(this::staticMoved);
+
+		// Only the Actors of the active region, or whose Signal changed, may wake up
+		sleepers.wakeActors(currentCenter);
+
 		playerPresent = false;
-		//**** PREUPDATE
-		for (Actor a : actors) {
-			if(!playerPresent && a instanceof Player)
+		for (Actor a : actors)
+			if(a instanceof Player) {
 				playerPresent = true;
-			a.preUpdate(view);
-		}
+				break;
+			}
+
+		//**** PREUPDATE
+		passes.forEach(Phase.PREUPDATE, a -> a.preUpdate(view));
+		endPhase(Phase.PREUPDATE);
 
 		//**** INTERACTION
-		for (Actor actor : actors)
-			for (Actor other : actors)
-				if (actor.getPriority() > other.getPriority())
-					actor.interact(other);
+		// The grid of static Actors is only rebuilt when one of them
+		// changes, e.g. in the Builder, or when a closed Door gets a Box
+		for (Actor a : staticGrid.getHidden())
+			if (a.getBox() != null)
+				staticsChanged = true;
+		if (staticsChanged) {
+			staticGrid     = new StaticGrid(statics, GridBroadphase.defaultCellSize);
+			staticsChanged = false;
+		}
+
+		// Only the Actors that are close to each other are paired, the
+		// contacts of the pairs that are not found again are dropped
+		contacts.nextStep();
+		broadphase.build(actors, staticGrid);
+		broadphase.forEachPair(interaction);
+		endPhase(Phase.INTERACTION);
 
 		//**** UPDATE
-		for (Actor a : actors)
-			a.update(view);
+		passes.forEach(Phase.UPDATE, a -> a.update(view));
 
-		//**** DRAWING
-		for (Actor a : actors.descending())
-			a.draw(view, view);
+		// Platforms move along their paths with their riders, then the
+		// moving bodies fall and move all at once, then their owners follow
+		kinematics.integrate(input.getDeltaTime());
+		kinematics.sync();
+		physics.integrate(gravity, input.getDeltaTime());
+		physics.sync();
+		endPhase(Phase.UPDATE);
 
 		//**** POSTUPDATE
-		for (Actor a : actors)
-			a.postUpdate(view);
+		passes.forEach(Phase.POSTUPDATE, a -> a.postUpdate(view));
+		endPhase(Phase.POSTUPDATE);
 
 
 		// If an Actor asked to be linked to another Signal...
 		if(toLink != null) {
-			// Loops on all actors to find the corresponding signal:
-			for(Actor a: actors)
-				if(view.getMouseButton(1).isPressed()   // the user has to left-click...
-						&& a instanceof Signal			// ...on a signal...
-						&& a.getBox() != null			// ..that has a non null Box...
-						&& a.getBox().isColliding(view.getMouseLocation())  // ...colliding with the mous...
-						&& toLink != a					// ...and is not itself.
-						) {
-					// Then, add the signal to the Linkable
-					Signal signal = (Signal)a;
-					if(signal.isActive())
-						toLink.addSignal(new Not(signal));	
-					else
-						toLink.addSignal(signal);	
-				}
+			// The user has to left-click, only the Actors under the mouse are looked at
+			if(view.getMouseButton(1).isPressed())
+				for(Actor a: queryPoint(view.getMouseLocation()))
+					if(a instanceof Signal			// ...on a signal...
+							&& toLink != a			// ...and is not itself.
+							) {
+						// Then, add the signal to the Linkable
+						Signal signal = (Signal)a;
+						if(signal.isActive())
+							toLink.addSignal(new Not(signal));	
+						else
+							toLink.addSignal(signal);	
+					}
 
 			// If the user right-clicks anywhere, then end the linking process.
 			if(input.getMouseButton(3).isPressed()) {
@@ -388,9 +622,277 @@ public class Simulator implements World {
 			register(new BackgroundImage(backgroundImages.get((index+1)%backgroundImages.size())));
 		}
 
+		endPhase(Phase.CONTROL);
+
 		/***** ACTOR MAINTENANCE *****/
+		for (Phase pass : new Phase[] {Phase.PREUPDATE, Phase.UPDATE, Phase.POSTUPDATE})
+			sleepers.sleepActors(passes.get(pass));
+		streamer.stream(currentCenter);
 		maintainActors();
+		streamer.flush();
+		mergeWalls();
 
+		// Remember where the Actors are, to interpolate their drawing
+		for (Actor a : actors) {
+			a.previousBox = a.stepBox;
+			a.stepBox     = a.getBox();
+		}
+		endPhase(Phase.MAINTENANCE);
+	}
+
+
+	/**
+	 * Draw the World between the last two steps of the simulation. Actors
+	 * are drawn after the whole step, postUpdate included, never between
+	 * update and postUpdate: an Arrow follows its body or its target there.
+	 * @param input input object to use, not null
+	 * @param output output object to use, not null
+	 * @param alpha part of the last step to show, between 0.0 (previous step) and 1.0 (last step)
+	 */
+	public void render(Input input, Output output, double alpha) {
+		startPhases();
+
+		// Interpolate the view
+		View view = new View(input, output);
+		view.setTarget(previousCenter.add(currentCenter.sub(previousCenter).mul(alpha)),
+				previousRadius + (currentRadius - previousRadius) * alpha);
+
+		// Mark the Actors around the View, the others are not drawn
+		++frame;
+		Box visible = view.getBox();
+		index.query(visible.getMin().getX() - cullMargin, visible.getMin().getY() - cullMargin,
+				visible.getMax().getX() + cullMargin, visible.getMax().getY() + cullMargin, nearby);
+		for (Actor a : nearby)
+			a.shown = frame;
+		nearby.clear();
+
+		//**** DRAWING
+		drawn  = 0;
+		culled = 0;
+		boolean sceneryDrawn = false;
+		Translation shifted = new Translation(view, view);
+		for (Actor a : passes.get(Phase.DRAW).descending()) {
+			// The scenery is drawn at once from its cached images, in place of
+			// its first Actor, all of them having the same priority
+			if (scenery.contains(a)) {
+				if (!sceneryDrawn) {
+					scenery.draw(view, view, output.getBox().getWidth() / visible.getWidth());
+					sceneryDrawn = true;
+				}
+				continue;
+			}
+			// Actors without a Box, or not in the index, are always drawn
+			if (a.shown != frame && a.proxy > 0 && a.getBox() != null && a.isCullable()) {
+				++culled;
+				continue;
+			}
+			++drawn;
+			// Only the Actors that moved during the last step are shifted back,
+			// not the ones placed again since (e.g. by their draw method)
+			Box previous = a.previousBox;
+			Box last     = a.stepBox;
+			if (alpha < 1.0 && previous != null && last != null
+					&& previous != last && a.getBox() == last) {
+				shifted.setOffset(previous.getCenter().sub(last.getCenter()).mul(1.0 - alpha));
+				a.draw(view, shifted);
+			} else
+				a.draw(view, view);
+		}
+		endPhase(Phase.DRAW);
+	}
+
+
+	/**
+	 * Sets the number of threads used to update the self-contained Actors.
+	 * @param threads  number of threads, 1 or less to update all Actors sequentially
+	 * @see Actor#isSelfContained()
+	 */
+	public void setParallelism(int threads) {
+		passes.setParallelism(threads);
+	}
+
+
+	/**
+	 * Returns the number of candidate pairs skipped during the last step
+	 * because of the collision masks.
+	 * @return  number of rejected pairs
+	 * @see Actor#getCollisionMask()
+	 */
+	public int getRejectedPairs() {
+		return broadphase.getRejectedPairs();
+	}
+
+
+	/**
+	 * Returns the number of contacts of the last step that were reused from
+	 * the previous one.
+	 * @return  number of reused contacts
+	 * @see #getContact(Actor, Actor)
+	 */
+	public int getReusedContacts() {
+		return contacts.getReused();
+	}
+
+
+	/**
+	 * Sets the size of the active region, around the center of the World,
+	 * out of which the Actors that can sleep fall asleep.
+	 * @param radius  half of the size of the region, positive
+	 * @see Actor#canSleep()
+	 */
+	public void setActiveRadius(double radius) {
+		sleepers.setActiveRadius(radius);
+	}
+
+
+	/**
+	 * Sets the distance to the center of the World within which the
+	 * streamable Actors are kept in memory. Farther, they are saved to disk
+	 * by chunks and read back when the center comes close again.
+	 * @param radius  distance to the center, positive
+	 * @see Actor#isStreamable()
+	 */
+	public void setStreamRadius(double radius) {
+		streamer.setRadius(radius);
+	}
+
+
+	/**
+	 * Returns the number of chunks whose streamable Actors are in the World.
+	 * @return  number of chunks in memory
+	 * @see #setStreamRadius(double)
+	 */
+	public int getResidentChunks() {
+		return streamer.getResidentChunks();
+	}
+
+
+	/**
+	 * Returns the number of chunks whose streamable Actors are saved to disk.
+	 * @return  number of chunks out of memory
+	 * @see #setStreamRadius(double)
+	 */
+	public int getStoredChunks() {
+		return streamer.getStoredChunks();
+	}
+
+
+	/**
+	 * Returns the number of Walls merging adjacent Blocks.
+	 * @return  number of Walls in the World
+	 * @see Wall
+	 */
+	public int getWalls() {
+		return walls.getWalls();
+	}
+
+
+	/**
+	 * Returns the number of Blocks that other Actors do not collide with,
+	 * since they collide with the Wall covering them.
+	 * @return  number of Blocks covered by a Wall
+	 * @see Wall
+	 */
+	public int getMergedBlocks() {
+		return walls.getMergedBlocks();
+	}
+
+
+	/**
+	 * Returns the number of chunks of scenery whose image is kept.
+	 * @return  number of chunks in memory
+	 * @see Actor#isScenery()
+	 */
+	public int getSceneryChunks() {
+		return scenery.getChunks();
+	}
+
+
+	/**
+	 * Returns the number of chunks of scenery drawn into a new image during
+	 * the last frame.
+	 * @return  number of chunks drawn again
+	 */
+	public int getRenderedChunks() {
+		return scenery.getRenderedChunks();
+	}
+
+
+	/**
+	 * Returns the number of Actors whose updates are currently skipped.
+	 * @return  number of sleeping Actors
+	 * @see Actor#canSleep()
+	 * @see Actor#isAtRest()
+	 */
+	public int getSleepingActors() {
+		return sleepers.getSleeping();
+	}
+
+
+	/**
+	 * Returns the number of Actors drawn during the last frame.
+	 * @return  number of Actors whose draw method was called
+	 * @see #getCulledActors()
+	 */
+	public int getDrawnActors() {
+		return drawn;
+	}
+
+
+	/**
+	 * Returns the number of Actors not drawn during the last frame, because
+	 * they were out of the View.
+	 * @return  number of Actors whose draw method was skipped
+	 * @see Actor#isCullable()
+	 */
+	public int getCulledActors() {
+		return culled;
+	}
+
+
+	/**
+	 * Enables or disables the measure of the time spent in each Phase.
+	 * Enabling it again resets the measures.
+	 * @param enabled  whether the Phases are measured
+	 * @see #getPhaseTime(Phase)
+	 */
+	public void setProfiling(boolean enabled) {
+		phaseTimes = enabled ? new long[Phase.values().length] : null;
+	}
+
+
+	/**
+	 * Returns the time spent in a Phase since profiling was enabled.
+	 * @param phase  a Phase, not null
+	 * @return       time in seconds, 0.0 if profiling is disabled
+	 */
+	public double getPhaseTime(Phase phase) {
+		if (phaseTimes == null)
+			return 0.0;
+		return phaseTimes[phase.ordinal()] * 1e-9;
+	}
+
+
+	/**
+	 * Begins to measure the Phases, if profiling is enabled.
+	 */
+	private void startPhases() {
+		if (phaseTimes != null)
+			phaseStart = System.nanoTime();
+	}
+
+
+	/**
+	 * Ends a Phase, counting the time elapsed since the end of the previous
+	 * one, if profiling is enabled.
+	 * @param phase  the Phase that just ended
+	 */
+	private void endPhase(Phase phase) {
+		if (phaseTimes == null)
+			return;
+		long now = System.nanoTime();
+		phaseTimes[phase.ordinal()] += now - phaseStart;
+		phaseStart = now;
 	}
 
 
@@ -402,9 +904,10 @@ public class Simulator implements World {
 		// Remove unregistered actors
 		for (int i = 0; i < unregistered.size(); ++i) {
 			Actor actor = unregistered.get(i);
-			if(actor != null)
+			if(actor != null) {
 				actor.unregister();
-			actors.remove(actor);
+				removeActor(actor);
+			}
 		}
 		unregistered.clear();
 
@@ -413,10 +916,115 @@ public class Simulator implements World {
 			Actor actor = registered.get(i);
 			if (!actors.contains(actor)) {
 				actor.register(this);
-				actors.add(actor);
+				addActor(actor);
 			}
 		}
 		registered.clear();
+
+		// No iteration is in progress, clean the removed Actors
+		actors.compact();
+		passes.compact();
+	}
+
+
+	/**
+	 * Replaces the Blocks of one tile laid on a common grid by Tilemaps,
+	 * e.g. once a Level or a save has been loaded.
+	 * @see Tilemap#merge(Iterable, List)
+	 */
+	private void mergeTiles() {
+		ArrayList<Actor> merged = new ArrayList<Actor>();
+		for (Tilemap tilemap : Tilemap.merge(actors, merged))
+			register(tilemap);
+		for (Actor a : merged)
+			unregister(a);
+		maintainActors();
+	}
+
+
+	/**
+	 * Merges again the Blocks added, moved or removed since the last call
+	 * into Walls.
+	 * @see WallMerger#update()
+	 */
+	private void mergeWalls() {
+		if (!walls.update())
+			return;
+		// Blocks may have lost or got back their solidity
+		contacts.clear();
+		maintainActors();
+	}
+
+
+	/**
+	 * Adds an Actor to the collection and to the spatial index.
+	 * @param actor  Actor not yet in the World, not null
+	 */
+	private void addActor(Actor actor) {
+		actors.add(actor);
+		passes.add(actor);
+		index.add(actor);
+		streamer.add(actor);
+		walls.add(actor);
+		scenery.add(actor);
+		if(actor.isStatic()) {
+			statics.add(actor);
+			staticsChanged = true;
+		}
+	}
+
+
+	/**
+	 * Removes an Actor from the collection and from the spatial index.
+	 * @param actor  an Actor, not null
+	 */
+	private void removeActor(Actor actor) {
+		if(!actors.remove(actor))
+			return;
+		passes.remove(actor);
+		index.remove(actor);
+		sleepers.remove(actor);
+		streamer.remove(actor);
+		walls.remove(actor);
+		scenery.remove(actor);
+		if(actor.isStatic() && statics.remove(actor))
+			staticsChanged = true;
+	}
+
+
+	/**
+	 * Removes all current Actors, without unregistering them.
+	 */
+	private void clearActors() {
+		for(Actor a : actors) {
+			a.proxy  = 0;
+			a.asleep = false;
+		}
+		actors.clear();
+		passes.clear();
+		physics.clear();
+		kinematics.clear();
+		contacts.clear();
+		sleepers.clear();
+		streamer.clear();
+		walls.clear();
+		scenery.clear();
+		index.clear();
+		statics.clear();
+		staticsChanged = true;
+	}
+
+
+	/**
+	 * Sets the Broadphase used to find the pairs of interacting Actors.
+	 * @param broadphase  new Broadphase, not null
+	 * @see GridBroadphase
+	 * @see SweepBroadphase
+	 */
+	public void setBroadphase(Broadphase broadphase) {
+		if (broadphase == null)
+			throw new NullPointerException();
+		this.broadphase = broadphase;
 	}
 
 
@@ -432,6 +1040,11 @@ public class Simulator implements World {
 			throw new NullPointerException();
 		if (radius <= 0.0)
 			throw new IllegalArgumentException("radius must be positive");
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null) {
+			buffer.add(() -> setView(center, radius));
+			return;
+		}
 		expectedCenter = center;
 		expectedRadius = radius;
 	}
@@ -451,13 +1064,21 @@ public class Simulator implements World {
 
 	@Override
 	public void register(Actor actor) {
-		registered.add(actor);
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null)
+			buffer.add(() -> registered.add(actor));
+		else
+			registered.add(actor);
 	}
 
 
 	@Override
 	public void unregister(Actor actor) {
-		unregistered.add(actor);
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null)
+			buffer.add(() -> unregistered.add(actor));
+		else
+			unregistered.add(actor);
 	}
 
 
@@ -475,15 +1096,115 @@ public class Simulator implements World {
 
 	@Override
 	public int hurt(Box area, Actor instigator, Damage type, double amount, Vector location) {
+		// From a parallel update, the victims will only be hurt later
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null) {
+			buffer.add(() -> hurt(area, instigator, type, amount, location));
+			return 0;
+		}
+
+		// Only the Actors found in the spatial index can be hurt
 		int victims = 0;
-		for (Actor actor : actors)
-			if (area.isColliding(actor.getBox()))
-				if (actor.hurt(instigator, type, amount, location))
-					++victims;
+		for (Actor actor : queryBox(area)) {
+			// The Blocks of a Wall are found themselves, and hurt only once
+			if (actor instanceof Wall)
+				continue;
+			if (actor.hurt(area, instigator, type, amount, location))
+				++victims;
+			if (actor.asleep)
+				sleepers.poke(actor);
+		}
 		return victims;
 	}
 
 
+	@Override
+	public List<Actor> queryBox(Box area) {
+		return index.queryBox(area);
+	}
+
+
+	@Override
+	public List<Actor> queryRadius(Vector center, double radius) {
+		return index.queryRadius(center, radius);
+	}
+
+
+	@Override
+	public List<Actor> queryPoint(Vector point) {
+		return index.queryPoint(point);
+	}
+
+
+	@Override
+	public void redraw(Box area) {
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null)
+			buffer.add(() -> scenery.invalidate(area));
+		else
+			scenery.invalidate(area);
+	}
+
+
+	@Override
+	public void moved(Actor actor) {
+		Box box = actor.getBox();
+		if (box == null)
+			return;
+		List<Runnable> buffer = passes.getDeferred();
+		if (buffer != null)
+			buffer.add(() -> reindex(actor, box));
+		else
+			reindex(actor, box);
+	}
+
+
+	/**
+	 * Updates the position of an Actor in the spatial index.
+	 * @param actor  an Actor whose Box has been set, not null
+	 * @param box    the new Box of the Actor, not null
+	 */
+	private void reindex(Actor actor, Box box) {
+		if (index.move(actor, box))
+			staticMoved(actor);
+	}
+
+
+	/**
+	 * Drops what depends on the place of an Actor moved in the spatial
+	 * index, if it is static: it has been moved, e.g. by a Spawn, or its
+	 * shape changed (e.g. a Tilemap lost a tile), so the contacts found
+	 * with it may not be reused.
+	 * @param actor  an Actor moved in the spatial index, not null
+	 */
+	private void staticMoved(Actor actor) {
+		if (actor.isStatic()) {
+			staticsChanged = true;
+			contacts.clear();
+			walls.moved(actor);
+			scenery.moved(actor);
+		}
+	}
+
+
+	@Override
+	public PhysicsStore getPhysics() {
+		return physics;
+	}
+
+
+	@Override
+	public KinematicStore getKinematics() {
+		return kinematics;
+	}
+
+
+	@Override
+	public Contact getContact(Actor solid, Actor actor) {
+		return contacts.get(solid, actor);
+	}
+
+
 	@Override
 	public Vector getGravity() {
 		return gravity;
@@ -541,6 +1262,9 @@ public class Simulator implements World {
 					overlay = a;
 			unregister(overlay);
 
+			// Bring back the Actors saved far from the View
+			streamer.restore();
+
 
 			// Add and remove all Actors
 			// that need to be wiped out.
@@ -591,6 +1315,10 @@ public class Simulator implements World {
 			int numberFile = 1;
 
 			for(Actor a : actors) {
+				// The Walls are merged again from the Blocks once loaded
+				if(a instanceof Wall)
+					continue;
+
 				// Code inspired by the mentioned website
 				String pathToFile = path + "actor" + String.format("%03d", numberFile) + ".ser";
 				FileOutputStream fileOut = new FileOutputStream(pathToFile);
@@ -637,7 +1365,7 @@ public class Simulator implements World {
 			maintainActors();
 
 			// Make sure the overlay disappears
-			actors.clear();
+			clearActors();
 
 			String path = pathWorld + String.format("%0"+signifNumbers+"d", world)+"/";
 
@@ -659,6 +1387,11 @@ public class Simulator implements World {
 				in.close();
 				fileIn.close();
 			}
+
+			// Saves made before the Tilemaps have many Blocks of one tile
+			maintainActors();
+			mergeTiles();
+			mergeWalls();
 		}
 		catch(IOException i) {
 			i.printStackTrace();
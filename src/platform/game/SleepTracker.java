@@ -0,0 +1,197 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+import platform.game.signal.Signal;
+import platform.util.Box;
+import platform.util.Vector;
+
+/**
+ * Puts to sleep the Actors of a World whose updates may be skipped, and
+ * wakes them up.
+ * <p>
+ * An Actor falls asleep at the end of a step when it is at rest, or when it
+ * can sleep and is out of the active region, around the center of the World.
+ * It wakes up when it is not so anymore after an interaction or when it is
+ * hurt, when it enters the active region while not at rest, or when its
+ * wake Signal changes.
+ * @see Actor#canSleep()
+ * @see Actor#isAtRest()
+ */
+final class SleepTracker {
+
+	/**
+	 * Spatial index of the World, used to find the Actors of the active region.
+	 */
+	private final ActorIndex index;
+
+
+	/**
+	 * Half of the size of the active region, around the center of the World.
+	 */
+	private double           activeRadius;
+
+
+	/**
+	 * Active region of the current step.
+	 */
+	private Box              activeRegion;
+
+
+	/**
+	 * Number of sleeping Actors.
+	 */
+	private int              sleeping;
+
+
+	/**
+	 * Sleeping Actors that have a wake Signal.
+	 * @see Actor#getWakeSignal()
+	 */
+	private final LinkedHashSet<Actor> watched;
+
+
+	/**
+	 * Actors to wake up, found at the beginning of each step.
+	 */
+	private final ArrayList<Actor> nearby;
+
+
+
+	/**
+	 * Creates a tracker without any sleeping Actor.
+	 * @param index         spatial index of the World, not null
+	 * @param center        center of the World, not null
+	 * @param activeRadius  half of the size of the active region, positive
+	 */
+	SleepTracker(ActorIndex index, Vector center, double activeRadius) {
+		if(index == null)
+			throw new NullPointerException();
+		this.index   = index;
+		this.watched = new LinkedHashSet<Actor>();
+		this.nearby  = new ArrayList<Actor>();
+		setActiveRadius(activeRadius);
+		this.activeRegion = new Box(center, 2.0 * activeRadius, 2.0 * activeRadius);
+	}
+
+
+
+	/**
+	 * @param radius  half of the size of the active region, positive
+	 */
+	void setActiveRadius(double radius) {
+		if(radius <= 0.0)
+			throw new IllegalArgumentException("radius must be positive");
+		activeRadius = radius;
+	}
+
+
+	/**
+	 * @return  number of sleeping Actors
+	 */
+	int getSleeping() {
+		return sleeping;
+	}
+
+
+	/**
+	 * Moves the active region, then wakes up the sleeping Actors that entered
+	 * it while not at rest, and those whose wake Signal changed.
+	 * @param center  center of the World, not null
+	 */
+	void wakeActors(Vector center) {
+		activeRegion = new Box(center, 2.0 * activeRadius, 2.0 * activeRadius);
+		if(sleeping == 0)
+			return;
+
+		index.query(activeRegion.getMin().getX(), activeRegion.getMin().getY(),
+				activeRegion.getMax().getX(), activeRegion.getMax().getY(), nearby);
+		for(Actor a : nearby)
+			if(a.asleep)
+				poke(a);
+		nearby.clear();
+
+		for(Actor a : watched)
+			if(a.getWakeSignal().isActive() != a.wakeValue)
+				nearby.add(a);
+		for(Actor a : nearby)
+			wake(a);
+		nearby.clear();
+	}
+
+
+	/**
+	 * Puts to sleep the Actors that are at rest, or that can sleep and are
+	 * out of the active region.
+	 * @param actors  Actors taking part in an update pass, not null
+	 */
+	void sleepActors(Iterable<Actor> actors) {
+		for(Actor a : actors)
+			if(!a.asleep && isSleepy(a)) {
+				a.asleep = true;
+				++sleeping;
+				Signal signal = a.getWakeSignal();
+				if(signal != null) {
+					a.wakeValue = signal.isActive();
+					watched.add(a);
+				}
+			}
+	}
+
+
+	/**
+	 * Wakes up a sleeping Actor if it may not sleep anymore, e.g. after it
+	 * has been hurt. Its next updates are not skipped, even during this step.
+	 * @param actor  a sleeping Actor, not null
+	 */
+	void poke(Actor actor) {
+		if(!isSleepy(actor))
+			wake(actor);
+	}
+
+
+	/**
+	 * Wakes up an Actor removed from the World, if it is asleep.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		if(actor.asleep)
+			wake(actor);
+	}
+
+
+	/**
+	 * Forgets all sleeping Actors. Their state is left to the World.
+	 */
+	void clear() {
+		sleeping = 0;
+		watched.clear();
+	}
+
+
+	/**
+	 * Indicates whether an Actor may sleep during the next step.
+	 * @param actor  an Actor, not null
+	 * @return       whether it is at rest, or can sleep and is out of the active region
+	 */
+	private boolean isSleepy(Actor actor) {
+		if(actor.isAtRest())
+			return true;
+		if(!actor.canSleep())
+			return false;
+		Box box = actor.getBox();
+		return box != null && !activeRegion.isColliding(box);
+	}
+
+
+	/**
+	 * Wakes up a sleeping Actor.
+	 * @param actor  a sleeping Actor, not null
+	 */
+	private void wake(Actor actor) {
+		actor.asleep = false;
+		--sleeping;
+		watched.remove(actor);
+	}
+}
@@ -0,0 +1,218 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import platform.util.Box;
+
+/**
+ * Uniform grid of the static Actors of a World.
+ * <p>
+ * The grid is never modified once built: the Simulator builds a new one
+ * when a static Actor is added, removed or moved. Static Actors that have no
+ * Box when the grid is built (e.g. an open Door) are kept aside.
+ * @see Actor#isStatic()
+ * @see Broadphase
+ */
+public final class StaticGrid {
+
+	/**
+	 * Number of cells above which an Actor is returned by every query.
+	 */
+	private static final int maxCells = 256;
+
+
+	/**
+	 * Inverse of the size of a cell.
+	 */
+	private final double inverseSize;
+
+
+	/**
+	 * Static Actors stored in the grid, indexed by slot.
+	 */
+	private final Actor[] actors;
+
+
+	/**
+	 * Slot of each Actor stored in the grid.
+	 */
+	private final IdentityHashMap<Actor, Integer> slots;
+
+
+	/**
+	 * Slots of the Actors in each cell, indexed by the coordinates of the cell.
+	 */
+	private final HashMap<Long, int[]> cells;
+
+
+	/**
+	 * Slots of the Actors covering too many cells.
+	 */
+	private final int[] large;
+
+
+	/**
+	 * Static Actors without a Box, not stored in the grid.
+	 */
+	private final List<Actor> hidden;
+
+
+
+	/**
+	 * Builds the grid.
+	 * @param statics   static Actors, not null
+	 * @param cellSize  size of a cell, positive
+	 */
+	public StaticGrid(Collection<Actor> statics, double cellSize) {
+		if(cellSize <= 0.0)
+			throw new IllegalArgumentException("cell size must be positive");
+		this.inverseSize = 1.0 / cellSize;
+
+		ArrayList<Actor> stored    = new ArrayList<Actor>();
+		ArrayList<Actor> hidden    = new ArrayList<Actor>();
+		HashMap<Long, int[]> cells = new HashMap<Long, int[]>();
+		int[] large                = new int[0];
+		this.slots                 = new IdentityHashMap<Actor, Integer>();
+
+		for(Actor actor : statics) {
+			Box box = actor.getBox();
+			if(box == null) {
+				hidden.add(actor);
+				continue;
+			}
+
+			int slot = stored.size();
+			stored.add(actor);
+			slots.put(actor, slot);
+
+			int x0 = coordinate(box.getMin().getX());
+			int y0 = coordinate(box.getMin().getY());
+			int x1 = coordinate(box.getMax().getX());
+			int y1 = coordinate(box.getMax().getY());
+
+			// Huge Actors would fill the whole grid
+			if((long)(x1 - x0 + 1) * (y1 - y0 + 1) > maxCells) {
+				large = Arrays.copyOf(large, large.length + 1);
+				large[large.length - 1] = slot;
+				continue;
+			}
+
+			for(int x = x0; x <= x1; ++x)
+				for(int y = y0; y <= y1; ++y) {
+					Long key = key(x, y);
+					int[] cell = cells.get(key);
+					if(cell == null)
+						cell = new int[] {slot};
+					else {
+						cell = Arrays.copyOf(cell, cell.length + 1);
+						cell[cell.length - 1] = slot;
+					}
+					cells.put(key, cell);
+				}
+		}
+
+		this.actors = stored.toArray(new Actor[stored.size()]);
+		this.cells  = cells;
+		this.large  = large;
+		this.hidden = Collections.unmodifiableList(hidden);
+	}
+
+
+	/**
+	 * Grid without any Actor.
+	 */
+	public StaticGrid() {
+		this(Collections.<Actor>emptyList(), GridBroadphase.defaultCellSize);
+	}
+
+
+
+	/**
+	 * @return number of Actors stored in the grid
+	 */
+	public int size() {
+		return actors.length;
+	}
+
+
+	/**
+	 * @param slot  slot of an Actor, between 0 and size() - 1
+	 * @return      the Actor stored at this slot
+	 */
+	public Actor get(int slot) {
+		return actors[slot];
+	}
+
+
+	/**
+	 * @param actor  an Actor
+	 * @return       the slot of the Actor, or -1 if it is not stored in the grid
+	 */
+	public int slotOf(Actor actor) {
+		Integer slot = slots.get(actor);
+		return slot == null ? -1 : slot;
+	}
+
+
+	/**
+	 * @return the static Actors that had no Box when the grid was built, not null
+	 */
+	public List<Actor> getHidden() {
+		return hidden;
+	}
+
+
+	/**
+	 * Reports the slots of the Actors whose cells overlap an area. A slot may
+	 * be reported several times.
+	 * @param x0      left side of the area
+	 * @param y0      bottom side of the area
+	 * @param x1      right side of the area
+	 * @param y1      top side of the area
+	 * @param action  called with each slot, not null
+	 */
+	public void query(double x0, double y0, double x1, double y1, IntConsumer action) {
+		for(int slot : large)
+			action.accept(slot);
+		if(cells.isEmpty())
+			return;
+
+		int cx0 = coordinate(x0);
+		int cy0 = coordinate(y0);
+		int cx1 = coordinate(x1);
+		int cy1 = coordinate(y1);
+		for(int x = cx0; x <= cx1; ++x)
+			for(int y = cy0; y <= cy1; ++y) {
+				int[] cell = cells.get(key(x, y));
+				if(cell != null)
+					for(int slot : cell)
+						action.accept(slot);
+			}
+	}
+
+
+	/**
+	 * @param value  a coordinate in the World
+	 * @return       the coordinate of the cell containing it
+	 */
+	private int coordinate(double value) {
+		return (int)Math.floor(value * inverseSize);
+	}
+
+
+	/**
+	 * @param x  horizontal coordinate of a cell
+	 * @param y  vertical coordinate of a cell
+	 * @return   key of the cell
+	 */
+	private static Long key(int x, int y) {
+		return ((long)x << 32) | (y & 0xffffffffL);
+	}
+}
@@ -0,0 +1,126 @@
+package platform.game;
+
+import java.util.Arrays;
+
+import platform.util.Geometry;
+
+/**
+ * Broadphase using sort and sweep along the horizontal axis.
+ * <p>
+ * Boxes are sorted by their left side, then swept from left to right: only the
+ * Boxes whose horizontal extents overlap are tested, all at once, on packed
+ * copies of the sorted bounds. Works best when the Actors are spread horizontally, as in most levels.
+ */
+public class SweepBroadphase extends PairBroadphase {
+
+	/**
+	 * Indices of the local Actors, sorted by their left side.
+	 */
+	private int[]    order;
+
+
+	/**
+	 * Bounds of the local Actors, in the order of their left side.
+	 */
+	private double[] sortedMinX, sortedMinY, sortedMaxX, sortedMaxY;
+
+
+	/**
+	 * Positions in the order of the Boxes close to the current one.
+	 */
+	private int[]    hits;
+
+
+
+	/**
+	 * Full constructor.
+	 * @param margin  distance under which two Boxes are paired, non negative
+	 */
+	public SweepBroadphase(double margin) {
+		super(margin);
+		this.order      = new int[64];
+		this.sortedMinX = new double[64];
+		this.sortedMinY = new double[64];
+		this.sortedMaxX = new double[64];
+		this.sortedMaxY = new double[64];
+		this.hits       = new int[64];
+	}
+
+
+	/**
+	 * Constructor without any margin.
+	 */
+	public SweepBroadphase() {
+		this(0.0);
+	}
+
+
+
+	@Override
+	protected void collect() {
+		if(order.length < localCount) {
+			int length = locals.length;
+			order      = new int[length];
+			sortedMinX = new double[length];
+			sortedMinY = new double[length];
+			sortedMaxX = new double[length];
+			sortedMaxY = new double[length];
+			hits       = new int[length];
+		}
+		System.arraycopy(locals, 0, order, 0, localCount);
+		sort(0, localCount - 1);
+
+		// Pack the bounds in the sorted order
+		for(int k = 0; k < localCount; ++k) {
+			int i = order[k];
+			sortedMinX[k] = minX[i];
+			sortedMinY[k] = minY[i];
+			sortedMaxX[k] = maxX[i];
+			sortedMaxY[k] = maxY[i];
+		}
+
+		for(int k = 0; k < localCount; ++k) {
+			// Stop as soon as the next Boxes begin after the end of this one
+			int end = k + 1;
+			while(end < localCount && sortedMinX[end] <= sortedMaxX[k])
+				++end;
+			int found = Geometry.touching(sortedMinX[k], sortedMinY[k], sortedMaxX[k], sortedMaxY[k],
+					sortedMinX, sortedMinY, sortedMaxX, sortedMaxY, k + 1, end, hits);
+			for(int h = 0; h < found; ++h)
+				addPair(order[k], order[hits[h]]);
+		}
+	}
+
+
+	/**
+	 * Sorts a part of the order by left side (quicksort, no boxing).
+	 * @param low   first position to sort
+	 * @param high  last position to sort
+	 */
+	private void sort(int low, int high) {
+		while(low < high) {
+			double pivot = minX[order[(low + high) >>> 1]];
+			int i = low;
+			int j = high;
+			while(i <= j) {
+				while(minX[order[i]] < pivot)
+					++i;
+				while(minX[order[j]] > pivot)
+					--j;
+				if(i <= j) {
+					int swap   = order[i];
+					order[i++] = order[j];
+					order[j--] = swap;
+				}
+			}
+			// Recurse on the smallest part to bound the depth
+			if(j - low < high - i) {
+				sort(low, j);
+				low = i;
+			} else {
+				sort(i, high);
+				high = j;
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package platform.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import platform.game.block.Block;
+import platform.game.block.Wall;
+import platform.util.Vector;
+
+/**
+ * Keeps the Blocks of a World merged into Walls.
+ * <p>
+ * The World is split into square regions. The Blocks of a region are those
+ * whose center is in it, and are merged together. When a Block is added,
+ * moved or removed, only the Walls of its region are built again, between
+ * two steps of the World.
+ * @see Wall#merge(List)
+ */
+final class WallMerger {
+
+	/**
+	 * Square part of the World.
+	 */
+	private static final class Region {
+		private final ArrayList<Block> blocks = new ArrayList<Block>();
+		private List<Wall>             walls  = new ArrayList<Wall>();
+		private boolean                dirty;
+	}
+
+
+	/**
+	 * Size of a region.
+	 */
+	public static final double regionSize = 32.0;
+
+
+	/**
+	 * World whose Blocks are merged.
+	 */
+	private final World world;
+
+
+	/**
+	 * Regions that have had Blocks, by coordinates.
+	 */
+	private final HashMap<Long, Region> regions;
+
+
+	/**
+	 * Region of each mergeable Block in the World.
+	 */
+	private final IdentityHashMap<Actor, Region> owners;
+
+
+	/**
+	 * Regions whose Blocks changed since the last update.
+	 */
+	private final ArrayList<Region> dirty;
+
+
+
+	/**
+	 * Creates a merger without any Block.
+	 * @param world  World whose Blocks are merged, not null
+	 */
+	WallMerger(World world) {
+		if(world == null)
+			throw new NullPointerException();
+		this.world   = world;
+		this.regions = new HashMap<Long, Region>();
+		this.owners  = new IdentityHashMap<Actor, Region>();
+		this.dirty   = new ArrayList<Region>();
+	}
+
+
+
+	/**
+	 * @return  number of Walls in the World
+	 */
+	int getWalls() {
+		int count = 0;
+		for(Region region : regions.values())
+			count += region.walls.size();
+		return count;
+	}
+
+
+	/**
+	 * @return  number of Blocks covered by a Wall
+	 */
+	int getMergedBlocks() {
+		int count = 0;
+		for(Region region : regions.values())
+			for(Wall wall : region.walls)
+				count += wall.getBlocks();
+		return count;
+	}
+
+
+	/**
+	 * Puts an Actor added to the World in its region, if it can be merged.
+	 * @param actor  an Actor, not null
+	 * @see Wall#isMergeable(Actor)
+	 */
+	void add(Actor actor) {
+		if(!Wall.isMergeable(actor))
+			return;
+		Region region = region(actor.getBox().getCenter());
+		region.blocks.add((Block)actor);
+		owners.put(actor, region);
+		invalidate(region);
+	}
+
+
+	/**
+	 * Removes an Actor from its region, e.g. when it is destroyed.
+	 * @param actor  an Actor, not null
+	 */
+	void remove(Actor actor) {
+		Region region = owners.remove(actor);
+		if(region != null) {
+			region.blocks.remove(actor);
+			invalidate(region);
+		}
+	}
+
+
+	/**
+	 * Moves an Actor whose Box has been set to its new region.
+	 * @param actor  an Actor, not null
+	 */
+	void moved(Actor actor) {
+		if(owners.containsKey(actor)) {
+			remove(actor);
+			add(actor);
+		}
+	}
+
+
+	/**
+	 * Replaces the Walls of the regions whose Blocks changed. Called between
+	 * two steps, the Walls are added to or removed from the World afterwards.
+	 * @return  whether Walls were replaced
+	 */
+	boolean update() {
+		if(dirty.isEmpty())
+			return false;
+		for(Region region : dirty) {
+			for(Wall wall : region.walls) {
+				wall.release();
+				world.unregister(wall);
+			}
+			region.walls = Wall.merge(region.blocks);
+			for(Wall wall : region.walls)
+				world.register(wall);
+			region.dirty = false;
+		}
+		dirty.clear();
+		return true;
+	}
+
+
+	/**
+	 * Forgets all regions, e.g. when the World is cleared.
+	 */
+	void clear() {
+		regions.clear();
+		owners.clear();
+		dirty.clear();
+	}
+
+
+	/**
+	 * Marks a region to be merged again.
+	 */
+	private void invalidate(Region region) {
+		if(!region.dirty) {
+			region.dirty = true;
+			dirty.add(region);
+		}
+	}
+
+
+	/**
+	 * @return  region containing a point, created if needed
+	 */
+	private Region region(Vector point) {
+		long x = (long)Math.floor(point.getX() / regionSize);
+		long y = (long)Math.floor(point.getY() / regionSize);
+		Long key = (x << 32) | (y & 0xffffffffL);
+		Region region = regions.get(key);
+		if(region == null) {
+			region = new Region();
+			regions.put(key, region);
+		}
+		return region;
+	}
+}
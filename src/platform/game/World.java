@@ -4,6 +4,7 @@ package platform.game;
 import java.awt.event.KeyEvent;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import platform.game.character.Player;
 import platform.game.graphic.SelectGravity;
@@ -105,6 +106,77 @@ public interface World {
 	public int hurt(Box area, Actor instigator, Damage type, double amount, Vector location);
 
 	
+	/**
+	 * Finds the Actors whose Box intersects an area.
+	 * @param area  Box delimiting the zone, not null
+	 * @return      the Actors found, in the order of the World, not null
+	 */
+	public List<Actor> queryBox(Box area);
+	
+	
+	/**
+	 * Finds the Actors whose Box intersects a disc.
+	 * @param center  center of the disc, not null
+	 * @param radius  radius of the disc, non negative
+	 * @return        the Actors found, in the order of the World, not null
+	 */
+	public List<Actor> queryRadius(Vector center, double radius);
+	
+	
+	/**
+	 * Finds the Actors whose Box contains a point.
+	 * @param point  a location, e.g. the mouse, not null
+	 * @return       the Actors found, in the order of the World, not null
+	 */
+	public List<Actor> queryPoint(Vector point);
+	
+	
+	/**
+	 * Tells the World that the Box of an Actor has changed, so its queries
+	 * stay up to date. Called by Actor.setBox.
+	 * @param actor  an Actor of this World
+	 */
+	public void moved(Actor actor);
+
+
+	/**
+	 * Tells the World that part of the drawing of an Actor has changed
+	 * without its Box, e.g. a tile removed from a Tilemap, so that the
+	 * scenery there is drawn again.
+	 * @param area  Box delimiting the zone, not null
+	 * @see Actor#isScenery()
+	 */
+	public void redraw(Box area);
+
+
+	/**
+	 * Returns the moving bodies of the World, to which gravity is applied
+	 * after each update pass.
+	 * @return  the PhysicsStore of the World, not null
+	 */
+	public PhysicsStore getPhysics();
+
+
+	/**
+	 * Returns the kinematic bodies of the World, e.g. moving platforms,
+	 * which are moved with their riders after each update pass.
+	 * @return  the KinematicStore of the World, not null
+	 */
+	public KinematicStore getKinematics();
+
+
+	/**
+	 * Finds the overlap of an Actor with a solid one, as
+	 * <code>solid.getCollision(actor.getBox())</code> would.
+	 * The contact is reused from one step to the next while both Boxes stay
+	 * the same, and the solid Actor has not been moved.
+	 * @param solid  Actor pushing the other one, not null
+	 * @param actor  Actor pushed, not null
+	 * @return       the Contact, or null if the Boxes do not overlap
+	 */
+	public Contact getContact(Actor solid, Actor actor);
+
+	
 	/**
 	 * @return the gravity (Vector) in effect in the World.
 	 */
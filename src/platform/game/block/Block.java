@@ -1,6 +1,7 @@
 package platform.game.block;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -12,6 +13,13 @@ public class Block extends Actor {
 
 	private static final long serialVersionUID = -8822563808223736615L;
 
+
+	/**
+	 * Wall other Actors collide with instead of this Block, null if none.
+	 * @see Wall
+	 */
+	transient Wall wall;
+
 	
 	
 	/**
@@ -39,6 +47,12 @@ public class Block extends Actor {
 		output.drawSprite(getSprite(), getBox());
 	}
 
+	@Override
+	public int getCategory() {
+		return Category.BLOCK;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Low priority so other Actors can easily interact with it
@@ -48,8 +62,23 @@ public class Block extends Actor {
 
 	@Override
 	public boolean isSolid() {
+		// Merged into a Wall, only the Wall is solid
+		return wall == null;
+	}
+	
+
+	@Override
+	public boolean isStatic() {
+		// A Block does not move once placed
 		return true;
 	}
+
+
+	@Override
+	public boolean isScenery() {
+		// Its Sprite never changes, unlike those of some subclasses
+		return isStatic();
+	}
 	
 
 	@Override
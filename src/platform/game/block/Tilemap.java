@@ -0,0 +1,540 @@
+package platform.game.block;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import platform.game.Actor;
+import platform.game.Category;
+import platform.game.Damage;
+import platform.game.World;
+import platform.game.misc.Debris;
+import platform.util.Box;
+import platform.util.Input;
+import platform.util.Output;
+import platform.util.Sprite;
+import platform.util.Vector;
+
+/**
+ * Grid of solid tiles of one unit, replacing as many Blocks. The type of each
+ * tile is stored in a single array: its Sprite, and whether it can be
+ * destroyed by fire or explosions like a WoodenBlock.
+ * <p>
+ * Other Actors only collide with the tiles, found from their position in
+ * the grid.
+ * @see #merge(Iterable, List)
+ */
+public class Tilemap extends Actor {
+
+	private static final long serialVersionUID = 3317486930524862218L;
+
+
+	/**
+	 * Size of a tile.
+	 */
+	public static final double tileSize = 1.0;
+
+
+	/**
+	 * Overlap with a tile, in tiles, below which it is ignored.
+	 */
+	private static final double epsilon = 1e-9;
+
+
+	/**
+	 * Smallest number of Blocks laid on a common grid worth a Tilemap.
+	 */
+	private static final int minTiles = 4;
+
+
+	/**
+	 * Bottom left corner of the grid.
+	 */
+	private final double  x0, y0;
+
+
+	/**
+	 * Size of the grid, in tiles.
+	 */
+	private final int     columns, rows;
+
+
+	/**
+	 * Type of each tile, row after row, 0 for the empty ones, otherwise
+	 * the index of the type plus one.
+	 */
+	private final short[] tiles;
+
+
+	/**
+	 * Number of tiles that are not empty.
+	 */
+	private int           count;
+
+
+	/**
+	 * Sprite of each type of tile.
+	 */
+	private String[]      sprites;
+
+
+	/**
+	 * Whether each type of tile can be destroyed by fire or explosions.
+	 */
+	private boolean[]     breakable;
+
+
+	/**
+	 * Number of types of tile.
+	 */
+	private int           types;
+
+
+	/**
+	 * Sprite of each type of tile, found when first drawn.
+	 */
+	private transient Sprite[] cache;
+
+
+	/**
+	 * Sprites and centers of the tiles drawn in a frame, sent in a single
+	 * batch, and the size of a tile repeated for each of them.
+	 */
+	private transient Sprite[] batch;
+	private transient double[] batchX, batchY, batchSize;
+
+
+
+	/**
+	 * Creates an empty Tilemap.
+	 * @param origin   bottom left corner of the grid, not null
+	 * @param columns  width of the grid in tiles, positive
+	 * @param rows     height of the grid in tiles, positive
+	 */
+	public Tilemap(Vector origin, int columns, int rows) {
+		super(new Box(origin, origin.add(new Vector(columns * tileSize, rows * tileSize))));
+		if(columns <= 0 || rows <= 0)
+			throw new IllegalArgumentException("size must be positive");
+		this.x0        = origin.getX();
+		this.y0        = origin.getY();
+		this.columns   = columns;
+		this.rows      = rows;
+		this.tiles     = new short[columns * rows];
+		this.count     = 0;
+		this.sprites   = new String[4];
+		this.breakable = new boolean[4];
+		this.types     = 0;
+	}
+
+
+
+	/**
+	 * Places a tile, replacing the previous one.
+	 * @param column     column of the tile, from the left
+	 * @param row        row of the tile, from the bottom
+	 * @param sprite     Sprite of the tile, not null
+	 * @param breakable  whether fire and explosions destroy the tile
+	 */
+	public void setTile(int column, int row, String sprite, boolean breakable) {
+		if(sprite == null)
+			throw new NullPointerException();
+		int index = index(column, row);
+		if(tiles[index] == 0)
+			++count;
+		tiles[index] = (short)(type(sprite, breakable) + 1);
+	}
+
+
+	/**
+	 * @param column  column of a tile, from the left
+	 * @param row     row of a tile, from the bottom
+	 * @return        whether there is a tile there
+	 */
+	public boolean isTile(int column, int row) {
+		return tiles[index(column, row)] != 0;
+	}
+
+
+	/**
+	 * Removes the tiles intersecting an area, e.g. erased in the Builder.
+	 * The Tilemap unregisters itself once empty.
+	 * @param area  Box delimiting the zone, not null
+	 * @return      number of tiles removed
+	 */
+	public int clear(Box area) {
+		return remove(area, false);
+	}
+
+
+	@Override
+	public void register(World world) {
+		super.register(world);
+		// The Loader may not be the same anymore
+		cache = null;
+	}
+
+
+	@Override
+	public void draw(Input input, Output output) {
+		if(cache == null)
+			cache = new Sprite[types];
+		else if(cache.length < types)
+			cache = Arrays.copyOf(cache, types);
+
+		// Only the tiles in the View are drawn
+		Box view = output.getBox();
+		int c0 = Math.max(0, (int)Math.ceil((view.getMin().getX() - x0) / tileSize) - 1);
+		int r0 = Math.max(0, (int)Math.ceil((view.getMin().getY() - y0) / tileSize) - 1);
+		int c1 = Math.min(columns - 1, (int)Math.floor((view.getMax().getX() - x0) / tileSize));
+		int r1 = Math.min(rows - 1, (int)Math.floor((view.getMax().getY() - y0) / tileSize));
+		if(c1 < c0 || r1 < r0)
+			return;
+		int capacity = (c1 - c0 + 1) * (r1 - r0 + 1);
+		if(batch == null || batch.length < capacity) {
+			batch     = new Sprite[capacity];
+			batchX    = new double[capacity];
+			batchY    = new double[capacity];
+			batchSize = new double[capacity];
+			Arrays.fill(batchSize, tileSize);
+		}
+		int drawn = 0;
+		for(int row = r0; row <= r1; ++row)
+			for(int column = c0; column <= c1; ++column) {
+				int type = tiles[row * columns + column] - 1;
+				if(type < 0)
+					continue;
+				if(cache[type] == null)
+					cache[type] = getSprite(sprites[type]);
+				batch[drawn]  = cache[type];
+				batchX[drawn] = x0 + (column + 0.5) * tileSize;
+				batchY[drawn] = y0 + (row + 0.5) * tileSize;
+				++drawn;
+			}
+		output.drawSprites(batch, batchX, batchY, batchSize, batchSize, null, null, drawn);
+	}
+
+
+	@Override
+	public boolean hurt(Actor instigator, Damage type, double amount, Vector location) {
+		switch(type) {
+		// Destroys the breakable tile where the attack comes from
+		case FIRE:
+		case EXPLOSION:
+			int column = (int)Math.floor((location.getX() - x0) / tileSize);
+			int row    = (int)Math.floor((location.getY() - y0) / tileSize);
+			if(column < 0 || column >= columns || row < 0 || row >= rows)
+				return false;
+			return remove(tile(column, row), true) > 0;
+		default:
+			return super.hurt(instigator, type, amount, location);
+		}
+	}
+
+
+	@Override
+	public boolean hurt(Box area, Actor instigator, Damage type, double amount, Vector location) {
+		switch(type) {
+		// Destroys the breakable tiles in the area, as many WoodenBlocks
+		case FIRE:
+		case EXPLOSION:
+			return remove(area, true) > 0;
+		default:
+			return hurt(instigator, type, amount, location);
+		}
+	}
+
+
+	@Override
+	public boolean isColliding(Box box) {
+		// An empty Box collides with nothing, as for Box.isColliding
+		if(box.getWidth() <= 0.0 || box.getHeight() <= 0.0)
+			return false;
+		return find(box.getMin().getX(), box.getMin().getY(), box.getMax().getX(), box.getMax().getY(), new int[4]);
+	}
+
+
+	@Override
+	public Vector getCollision(Box box) {
+		double u0 = box.getMin().getX(), v0 = box.getMin().getY();
+		double u1 = box.getMax().getX(), v1 = box.getMax().getY();
+		if(!find(u0, v0, u1, v1, new int[4]))
+			return null;
+
+		// Push the Box out of the tiles in each direction, it may meet other
+		// tiles on its way (e.g. along a floor), then keep the shortest one
+		// as Box.getCollision would for a single tile
+		double left   = u1 - push(u0, v0, u1, v1, -1, 0);
+		double right  = push(u0, v0, u1, v1, 1, 0) - u0;
+		double bottom = v1 - push(u0, v0, u1, v1, 0, -1);
+		double top    = push(u0, v0, u1, v1, 0, 1) - v0;
+		if(Math.min(left, right) < Math.min(bottom, top))
+			return new Vector(left < right ? -left : right, 0.0);
+		return new Vector(0.0, bottom < top ? -bottom : top);
+	}
+
+
+	@Override
+	public void getParts(Box area, List<Box> parts) {
+		int c0 = Math.max(0, (int)Math.ceil((area.getMin().getX() - x0) / tileSize) - 1);
+		int r0 = Math.max(0, (int)Math.ceil((area.getMin().getY() - y0) / tileSize) - 1);
+		int c1 = Math.min(columns - 1, (int)Math.floor((area.getMax().getX() - x0) / tileSize));
+		int r1 = Math.min(rows - 1, (int)Math.floor((area.getMax().getY() - y0) / tileSize));
+		for(int row = r0; row <= r1; ++row)
+			for(int column = c0; column <= c1; ++column)
+				if(tiles[row * columns + column] != 0)
+					parts.add(tile(column, row));
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.BLOCK;
+	}
+
+
+	@Override
+	protected int getPriority() {
+		// Same priority as the Blocks it replaces
+		return 0;
+	}
+
+
+	@Override
+	public boolean isSolid() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStatic() {
+		// Tiles are removed, but never moved
+		return true;
+	}
+
+
+	@Override
+	public boolean isScenery() {
+		// The tiles removed are redrawn
+		return true;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// It may cover many chunks, but it is small anyway
+		return false;
+	}
+
+
+	/**
+	 * Replaces the Blocks and WoodenBlocks of one tile laid on a common grid
+	 * by Tilemaps, e.g. when a Level or a save is loaded. Other Blocks,
+	 * including the subclasses of Block, are kept as they are.
+	 * @param actors  Actors of a World, not null
+	 * @param merged  list where the Blocks replaced are added, not null
+	 * @return        the new Tilemaps, not null
+	 */
+	public static List<Tilemap> merge(Iterable<Actor> actors, List<Actor> merged) {
+		// Group the Blocks of one tile by the position of their grid
+		LinkedHashMap<Long, List<Block>> grids = new LinkedHashMap<Long, List<Block>>();
+		for(Actor actor : actors) {
+			if(actor.getClass() != Block.class && actor.getClass() != WoodenBlock.class)
+				continue;
+			Box box = actor.getBox();
+			if(box == null || actor.getSpriteName() == null
+					|| Math.abs(box.getWidth() - tileSize) > 1e-9 || Math.abs(box.getHeight() - tileSize) > 1e-9)
+				continue;
+			long offsetX = Math.round(offset(box.getMin().getX()) * 1e6);
+			long offsetY = Math.round(offset(box.getMin().getY()) * 1e6);
+			Long key = (offsetX << 32) | offsetY;
+			List<Block> grid = grids.get(key);
+			if(grid == null) {
+				grid = new ArrayList<Block>();
+				grids.put(key, grid);
+			}
+			grid.add((Block)actor);
+		}
+
+		ArrayList<Tilemap> tilemaps = new ArrayList<Tilemap>();
+		for(List<Block> grid : grids.values()) {
+			if(grid.size() < minTiles)
+				continue;
+			double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			for(Block block : grid) {
+				minX = Math.min(minX, block.getBox().getMin().getX());
+				minY = Math.min(minY, block.getBox().getMin().getY());
+				maxX = Math.max(maxX, block.getBox().getMax().getX());
+				maxY = Math.max(maxY, block.getBox().getMax().getY());
+			}
+			Tilemap tilemap = new Tilemap(new Vector(minX, minY),
+					(int)Math.round((maxX - minX) / tileSize), (int)Math.round((maxY - minY) / tileSize));
+			for(Block block : grid) {
+				int column = (int)Math.round((block.getBox().getMin().getX() - minX) / tileSize);
+				int row    = (int)Math.round((block.getBox().getMin().getY() - minY) / tileSize);
+				// A Block placed twice at the same place stays a Block
+				if(tilemap.isTile(column, row))
+					continue;
+				tilemap.setTile(column, row, block.getSpriteName(), block instanceof WoodenBlock);
+				merged.add(block);
+			}
+			tilemaps.add(tilemap);
+		}
+		return tilemaps;
+	}
+
+
+	/**
+	 * @return  position of a coordinate in its tile, between 0.0 and the size of a tile
+	 */
+	private static double offset(double coordinate) {
+		double offset = coordinate - Math.floor(coordinate / tileSize) * tileSize;
+		// Close to the size of a tile is the same as close to 0.0
+		return offset > tileSize - 1e-6 ? 0.0 : offset;
+	}
+
+
+	/**
+	 * @return  index of the type of tile, added if needed
+	 */
+	private int type(String sprite, boolean breakable) {
+		for(int i = 0; i < types; ++i)
+			if(sprites[i].equals(sprite) && this.breakable[i] == breakable)
+				return i;
+		if(types == Short.MAX_VALUE - 1)
+			throw new IllegalStateException("too many types of tile");
+		if(types == sprites.length) {
+			sprites        = Arrays.copyOf(sprites, types * 2);
+			this.breakable = Arrays.copyOf(this.breakable, types * 2);
+		}
+		sprites[types]        = sprite;
+		this.breakable[types] = breakable;
+		return types++;
+	}
+
+
+	/**
+	 * @return  index of a tile in the array
+	 */
+	private int index(int column, int row) {
+		if(column < 0 || column >= columns || row < 0 || row >= rows)
+			throw new IndexOutOfBoundsException("no tile (" + column + ", " + row + ")");
+		return row * columns + column;
+	}
+
+
+	/**
+	 * @return  Box of a tile
+	 */
+	private Box tile(int column, int row) {
+		return new Box(new Vector(x0 + column * tileSize, y0 + row * tileSize),
+				new Vector(x0 + (column + 1) * tileSize, y0 + (row + 1) * tileSize));
+	}
+
+
+	/**
+	 * Finds the tiles intersecting some bounds.
+	 * @param found  where the first column, the first row, the last column
+	 *               and the last row of the tiles found are written
+	 * @return       whether a tile intersects the bounds
+	 */
+	private boolean find(double u0, double v0, double u1, double v1, int[] found) {
+		// Only the tiles whose inside intersects the bounds, as Box.getCollision,
+		// bounds placed against a tile by push do not intersect it
+		int c0 = Math.max(0, (int)Math.floor((u0 - x0) / tileSize + epsilon));
+		int r0 = Math.max(0, (int)Math.floor((v0 - y0) / tileSize + epsilon));
+		int c1 = Math.min(columns - 1, (int)Math.ceil((u1 - x0) / tileSize - epsilon) - 1);
+		int r1 = Math.min(rows - 1, (int)Math.ceil((v1 - y0) / tileSize - epsilon) - 1);
+		boolean any = false;
+		for(int row = r0; row <= r1; ++row)
+			for(int column = c0; column <= c1; ++column)
+				if(tiles[row * columns + column] != 0) {
+					if(!any) {
+						found[0] = found[2] = column;
+						found[1] = found[3] = row;
+						any = true;
+					} else {
+						found[0] = Math.min(found[0], column);
+						found[1] = Math.min(found[1], row);
+						found[2] = Math.max(found[2], column);
+						found[3] = Math.max(found[3], row);
+					}
+				}
+		return any;
+	}
+
+
+	/**
+	 * Moves bounds along an axis until they leave the tiles.
+	 * @param dx  -1 to move them left, 1 to move them right, 0 otherwise
+	 * @param dy  -1 to move them down, 1 to move them up, 0 otherwise
+	 * @return    the new position of the side of the bounds facing the
+	 *            movement, infinite if they never leave the tiles
+	 */
+	private double push(double u0, double v0, double u1, double v1, int dx, int dy) {
+		double width  = u1 - u0;
+		double height = v1 - v0;
+		int[] found = new int[4];
+		while(find(u0, v0, u1, v1, found)) {
+			// Place the bounds against the farthest tile found
+			if(dx > 0) {
+				u0 = x0 + (found[2] + 1) * tileSize;
+				u1 = u0 + width;
+			} else if(dx < 0) {
+				u1 = x0 + found[0] * tileSize;
+				u0 = u1 - width;
+			} else if(dy > 0) {
+				v0 = y0 + (found[3] + 1) * tileSize;
+				v1 = v0 + height;
+			} else {
+				v1 = y0 + found[1] * tileSize;
+				v0 = v1 - height;
+			}
+		}
+		return dx > 0 ? u0 : dx < 0 ? u1 : dy > 0 ? v0 : v1;
+	}
+
+
+	/**
+	 * Removes the tiles intersecting an area.
+	 * @param area       Box delimiting the zone, not null
+	 * @param breakable  whether only the breakable tiles are removed
+	 * @return           number of tiles removed
+	 */
+	private int remove(Box area, boolean breakable) {
+		int[] found = new int[4];
+		double u0 = area.getMin().getX(), v0 = area.getMin().getY();
+		double u1 = area.getMax().getX(), v1 = area.getMax().getY();
+		if(!find(u0, v0, u1, v1, found))
+			return 0;
+		int removed = 0;
+		int c0 = columns, r0 = rows, c1 = -1, r1 = -1;
+		for(int row = found[1]; row <= found[3]; ++row)
+			for(int column = found[0]; column <= found[2]; ++column) {
+				int type = tiles[row * columns + column] - 1;
+				if(type < 0 || (breakable && !this.breakable[type]))
+					continue;
+				tiles[row * columns + column] = 0;
+				--count;
+				++removed;
+				c0 = Math.min(c0, column);
+				r0 = Math.min(r0, row);
+				c1 = Math.max(c1, column);
+				r1 = Math.max(r1, row);
+				if(breakable) {
+					// Creates Debris, as a WoodenBlock would
+					String[] debris = {"wood.debris.1", "wood.debris.2", "wood.debris.3"};
+					getWorld().register(new Debris(tile(column, row).getCenter(), debris, tileSize * 0.4));
+				}
+			}
+		if(removed > 0) {
+			// Contacts with the tiles removed may not be reused
+			getWorld().moved(this);
+			getWorld().redraw(new Box(tile(c0, r0).getMin(), tile(c1, r1).getMax()));
+			if(count == 0)
+				getWorld().unregister(this);
+		}
+		return removed;
+	}
+}
@@ -0,0 +1,213 @@
+package platform.game.block;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import platform.game.Actor;
+import platform.game.Category;
+import platform.game.Damage;
+import platform.util.Box;
+import platform.util.Vector;
+
+/**
+ * Invisible solid rectangle covering adjacent Blocks laid side by side, e.g.
+ * a row of Blocks forming a wall. Other Actors collide once with the Wall
+ * instead of with each of its Blocks, which are not solid anymore but are
+ * still drawn, hurt and erased as usual.
+ * @see #merge(List)
+ */
+public class Wall extends Actor {
+
+	private static final long serialVersionUID = -1930342517457735048L;
+
+
+	/**
+	 * Gap between two Blocks, or difference between their sides, below
+	 * which they are considered adjacent or aligned.
+	 */
+	private static final double epsilon = 1e-9;
+
+
+	/**
+	 * Blocks covered by the Wall.
+	 */
+	private final List<Block> blocks;
+
+
+
+	/**
+	 * Creates a Wall covering Blocks, which are not solid anymore.
+	 * @param box     union of the Boxes of the Blocks, not null
+	 * @param blocks  Blocks covered, not null
+	 */
+	private Wall(Box box, List<Block> blocks) {
+		super(box);
+		this.blocks = blocks;
+		for(Block block : blocks)
+			block.wall = this;
+	}
+
+
+
+	/**
+	 * Gives their solidity back to the Blocks, before the Wall is unregistered.
+	 */
+	public void release() {
+		for(Block block : blocks)
+			if(block.wall == this)
+				block.wall = null;
+	}
+
+
+	/**
+	 * @return  number of Blocks covered by the Wall
+	 */
+	public int getBlocks() {
+		return blocks.size();
+	}
+
+
+	@Override
+	public boolean hurt(Actor instigator, Damage type, double amount, Vector location) {
+		// Hurts the Blocks at the location
+		boolean hurt = false;
+		for(Block block : blocks)
+			if(block.getBox().isColliding(location))
+				hurt |= block.hurt(instigator, type, amount, location);
+		return hurt;
+	}
+
+
+	@Override
+	public boolean hurt(Box area, Actor instigator, Damage type, double amount, Vector location) {
+		// Hurts the Blocks in the area, e.g. those touched by a Fireball
+		boolean hurt = false;
+		for(Block block : blocks)
+			if(block.isColliding(area))
+				hurt |= block.hurt(area, instigator, type, amount, location);
+		return hurt;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.BLOCK;
+	}
+
+
+	@Override
+	protected int getPriority() {
+		// Same as the Blocks it covers
+		return 0;
+	}
+
+
+	@Override
+	public boolean isSolid() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// It refers to its Blocks, and is built again from them
+		return false;
+	}
+
+
+	/**
+	 * @return  whether an Actor can be covered by a Wall: a plain Block or
+	 *          WoodenBlock, as for a Tilemap
+	 */
+	public static boolean isMergeable(Actor actor) {
+		return (actor.getClass() == Block.class || actor.getClass() == WoodenBlock.class)
+				&& actor.getBox() != null;
+	}
+
+
+	/**
+	 * Merges adjacent Blocks into rectangles: two Blocks sharing a whole side,
+	 * or overlapping with the same two other sides, are merged, until no two
+	 * rectangles can be. A Wall is created for each rectangle of more than one
+	 * Block, which makes its Blocks not solid; the others stay as they are.
+	 * @param blocks  mergeable Blocks, not null
+	 * @return        new Walls, to be registered, not null
+	 * @see #isMergeable(Actor)
+	 */
+	public static List<Wall> merge(List<Block> blocks) {
+		ArrayList<Rectangle> rectangles = new ArrayList<Rectangle>();
+		for(Block block : blocks)
+			rectangles.add(new Rectangle(block));
+
+		// Merge along x, then along y, until nothing changes
+		int before;
+		do {
+			before = rectangles.size();
+			join(rectangles, 0);
+			join(rectangles, 1);
+		} while(rectangles.size() < before);
+
+		ArrayList<Wall> walls = new ArrayList<Wall>();
+		for(Rectangle rectangle : rectangles)
+			if(rectangle.blocks.size() > 1)
+				walls.add(new Wall(new Box(new Vector(rectangle.min[0], rectangle.min[1]),
+						new Vector(rectangle.max[0], rectangle.max[1])), rectangle.blocks));
+		return walls;
+	}
+
+
+	/**
+	 * Merges the rectangles with the same sides across an axis that touch
+	 * or overlap along it.
+	 * @param rectangles  rectangles, replaced by the merged ones
+	 * @param along       0 to merge along x, 1 along y
+	 */
+	private static void join(ArrayList<Rectangle> rectangles, int along) {
+		int across = 1 - along;
+		Collections.sort(rectangles, Comparator
+				.<Rectangle>comparingDouble(r -> r.min[across])
+				.thenComparingDouble(r -> r.max[across])
+				.thenComparingDouble(r -> r.min[along]));
+
+		ArrayList<Rectangle> joined = new ArrayList<Rectangle>();
+		Rectangle last = null;
+		for(Rectangle rectangle : rectangles) {
+			if(last != null
+					&& Math.abs(rectangle.min[across] - last.min[across]) < epsilon
+					&& Math.abs(rectangle.max[across] - last.max[across]) < epsilon
+					&& rectangle.min[along] <= last.max[along] + epsilon) {
+				last.max[along] = Math.max(last.max[along], rectangle.max[along]);
+				last.blocks.addAll(rectangle.blocks);
+			} else {
+				joined.add(rectangle);
+				last = rectangle;
+			}
+		}
+		rectangles.clear();
+		rectangles.addAll(joined);
+	}
+
+
+	/**
+	 * Rectangle covering Blocks, while they are merged.
+	 */
+	private static final class Rectangle {
+		private final double[]         min, max;
+		private final ArrayList<Block> blocks = new ArrayList<Block>();
+
+		private Rectangle(Block block) {
+			Box box = block.getBox();
+			min = new double[] {box.getMin().getX(), box.getMin().getY()};
+			max = new double[] {box.getMax().getX(), box.getMax().getY()};
+			blocks.add(block);
+		}
+	}
+}
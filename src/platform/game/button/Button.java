@@ -2,6 +2,7 @@ package platform.game.button;
 
 import java.awt.event.KeyEvent;
 
+import platform.game.Category;
 import platform.game.World;
 import platform.game.block.Block;
 import platform.util.Box;
@@ -103,6 +104,12 @@ public class Button extends Block {
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.INTERFACE;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Very high priority so nothing tangible
@@ -118,6 +125,13 @@ public class Button extends Block {
 	}
 
 
+	@Override
+	public boolean isStatic() {
+		// A button follows the View
+		return false;
+	}
+
+
 	/**
 	 * @return  the shortcut associated to the button
 	 */
@@ -3,6 +3,8 @@ package platform.game.character;
 import java.awt.event.KeyEvent;
 
 import platform.game.Actor;
+import platform.game.Category;
+import platform.game.Contact;
 import platform.game.Damage;
 import platform.game.Overlay;
 import platform.game.World;
@@ -263,13 +265,10 @@ public class Player extends Actor {
 		}
 
 		gravityAngle = getWorld().getGravityAngle();
-	}
-
-
-	@Override
-	public void interact(Actor other) {
 
-		// Interacts with solid Actors
+		// Computes the angle of the Sprite according to the gravity.
+		// Done here rather than in interact, which is only called
+		// when the Player is close to another Actor.
 		double angleLimit     = Math.PI/4;
 		angleSprite           = 0.0;
 		angleMode             = 0;
@@ -279,12 +278,23 @@ public class Player extends Actor {
 				angleSprite = i*angleLimit;		
 				angleMode   = i/2;
 			}
+	}
+
+
+	@Override
+	public void interact(Actor other) {
+
+		// Interacts with solid Actors
+		double angleLimit     = Math.PI/4;
 		
 		if (other.isSolid()) {
 
-			Vector delta = other.getBox().getCollision(getBox());
+			// Resting on the same Block, the contact of the previous step is reused
+			Contact contact = getWorld().getContact(other, this);
+
+			if (contact != null) {
+				Vector delta = contact.getPenetration();
 
-			if (delta != null) {
 				// If the Player is colliding with a solid Actor,
 				// make sure it doesn't break the limit between the two.
 				position = position.add(delta);
@@ -297,7 +307,7 @@ public class Player extends Actor {
 				// From here on, calculates if the Player is colliding something that is
 				// not considered to be the ceiling (we have to take the changeable gravity
 				// into account!!)
-				double angleCollision = other.getBox().getCollision(getBox()).getAngle()-Math.PI/2.0;
+				double angleCollision = contact.getAngle()-Math.PI/2.0;
 
 				if(angleCollision < 0.0)
 					angleCollision   += Math.PI*2;
@@ -308,11 +318,21 @@ public class Player extends Actor {
 					absoluteAngle    -= Math.PI;
 
 				colliding = absoluteAngle <= angleLimit*3;
+
+				// Standing on a moving platform, the Player moves along with it
+				getWorld().getKinematics().ride(other, this, contact.getNormal());
 			}
 		}
 	}
 
 
+	@Override
+	public void carry(Vector delta) {
+		position = position.add(delta);
+		setBox(new Box(position, size, size));
+	}
+
+
 	@Override
 	public void update(Input input) {
 
@@ -561,6 +581,19 @@ public class Player extends Actor {
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.CHARACTER;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only collides with solid Actors
+		return Category.BLOCK | Category.PASSIVE | Category.PROJECTILE;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		return 42;
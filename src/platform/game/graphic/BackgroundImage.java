@@ -1,6 +1,7 @@
 package platform.game.graphic;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -31,6 +32,12 @@ public class BackgroundImage extends Actor {
 	}
 
 	
+	@Override
+	public int getCategory() {
+		return Category.DECOR;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Very low priority so nothing gets behind it, except for the BackgroundColour
@@ -1,6 +1,7 @@
 package platform.game.graphic;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -61,6 +62,12 @@ public class End extends Actor {
 	}
 
 	
+	@Override
+	public int getCategory() {
+		return Category.DECOR;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// High priority so most of the elements are masked.
@@ -1,6 +1,7 @@
 package platform.game.graphic;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -29,6 +30,12 @@ public class Image extends Actor {
 	}
 	
 
+	@Override
+	public int getCategory() {
+		return Category.DECOR;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Very high priority to get in front of almost every other Actor
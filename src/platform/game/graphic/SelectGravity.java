@@ -82,5 +82,12 @@ public class SelectGravity extends Button {
 	}
 
 
+	@Override
+	public boolean isCullable() {
+		// Its Box follows the View, but only once drawn
+		return false;
+	}
+
+
 
 }
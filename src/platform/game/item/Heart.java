@@ -1,5 +1,6 @@
 package platform.game.item;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
 import platform.util.Box;
@@ -81,6 +82,26 @@ public class Heart extends Actor {
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.ITEM;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only the Player answers to HEAL damage
+		return Category.CHARACTER;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only the cooldown after being taken is updated
+		return cooldown < 0;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Higher priority than the player
@@ -0,0 +1,79 @@
+package platform.game.level;
+
+import platform.game.World;
+import platform.game.block.Block;
+import platform.game.graphic.BackgroundImage;
+import platform.game.misc.Limits;
+import platform.util.Box;
+import platform.util.Input;
+import platform.util.Vector;
+
+/**
+ *  Benchmark level of 1000 x 1000 covered with platforms, without Player,
+ *  whose View tours the World so that its chunks are saved to disk and
+ *  read back. Meant to be run without window, e.g. with the arguments
+ *  {@code -headless 3600 LargeLevel}.
+ */
+public class LargeLevel extends Level {
+
+	private static final long serialVersionUID = 4410278466702539213L;
+
+	/**
+	 * Size of the World.
+	 */
+	private static final double size = 1000.0;
+
+	/**
+	 * Distance between two platforms.
+	 */
+	private static final double spacing = 6.0;
+
+	/**
+	 * Radius of the circle followed by the View.
+	 */
+	private static final double tour = 300.0;
+
+	/**
+	 * Duration of a tour, in seconds.
+	 */
+	private static final double period = 60.0;
+
+	/**
+	 * Time since the Level started.
+	 */
+	private double time;
+
+
+	@Override
+	public void register(World world) {
+		super.register(world);
+
+		// Register a new instance, to restart level automatically
+		world.setNextLevel(new LargeLevel());
+		world.setView(new Vector(tour, 0.0), 10.0);
+		if(!isDynamicSave())
+		{
+			setDynamicSave();
+			world.register(new Limits(new Box(Vector.ZERO, size, size)));
+			world.register(new BackgroundImage("blue.land"));
+
+			// Platforms wider than a tile are not merged, and may be streamed
+			for(double x = -size / 2.0 + spacing; x < size / 2.0; x += spacing)
+				for(double y = -size / 2.0 + spacing; y < size / 2.0; y += spacing)
+					world.register(new Block(
+							new Box(new Vector(x, y), 3.0, 1.0)
+							, "stone.broken.3"));
+		}
+	}
+
+
+	@Override
+	public void update(Input input) {
+		super.update(input);
+
+		// The View goes around the center of the World
+		time += input.getDeltaTime();
+		double angle = 2.0 * Math.PI * time / period;
+		getWorld().setView(new Vector(Math.cos(angle), Math.sin(angle)).mul(tour), 10.0);
+	}
+}
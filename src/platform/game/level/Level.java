@@ -1,6 +1,7 @@
 package platform.game.level;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Input;
 import platform.util.Output;
 
@@ -33,6 +34,11 @@ public abstract class Level extends Actor {
 		return levelDone;
 	}
 
+	@Override
+	public int getCategory() {
+		return Category.WORLD;
+	}
+
 	@Override
 	public int getPriority() {
 		return Integer.MAX_VALUE;
@@ -101,6 +101,13 @@ public class Door extends Block implements Signal, Linkable {
 	}
 
 
+	@Override
+	public boolean isScenery() {
+		// It disappears when its Signal is active
+		return false;
+	}
+
+
 	@Override
 	public Box getBox() {
 		// Return the box iff the signal is not active
@@ -126,6 +133,20 @@ public class Door extends Block implements Signal, Linkable {
 	}
 
 
+	@Override
+	public boolean isAtRest() {
+		// Only the linking process is updated
+		return !linkable;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// It refers to its Signal, and the Linkables it controls refer to it
+		return false;
+	}
+
+
 	@Override
 	public Actor copie() {
 		// Create a new Door ready for the linking process
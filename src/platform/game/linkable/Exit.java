@@ -1,6 +1,7 @@
 package platform.game.linkable;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Linkable;
 import platform.game.World;
@@ -140,6 +141,32 @@ public class Exit extends Actor implements Linkable {
 	}
 
 
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// It refers to its Signal, which would be saved along with it
+		return false;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.SIGNAL;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only the linking process is updated
+		return !linkable;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Same level as a Block, so the Player is in front of it.
@@ -1,8 +1,10 @@
 package platform.game.linkable;
 
 import java.awt.event.KeyEvent;
+import java.util.Arrays;
 
 import platform.game.Actor;
+import platform.game.KinematicStore;
 import platform.game.Linkable;
 import platform.game.World;
 import platform.game.block.Block;
@@ -15,6 +17,12 @@ import platform.util.Input;
 import platform.util.Output;
 import platform.util.Vector;
 
+/**
+ * A Mover is a block moving along a path when the Signal it is linked to
+ * is active, and back when it is not. It is a kinematic body of its World:
+ * the Actors standing on it are carried along.
+ * @see KinematicStore
+ */
 public class Mover extends Block implements Linkable {
 
 	private static final long serialVersionUID = 6526755917273878338L;
@@ -29,6 +37,11 @@ public class Mover extends Block implements Linkable {
 	 */
 	private Vector on;
 
+	/**
+	 * Positions the mover goes through between off and on, may be empty.
+	 */
+	private Vector[] waypoints;
+
 	/**
 	 * Used to store the Signal
 	 */
@@ -41,11 +54,17 @@ public class Mover extends Block implements Linkable {
 	private Signal signalTemp;
 
 	/**
-	 * Indicates the current position of the door:
-	 * between 0 and 1, between on and off.
+	 * Indicates the current position of the mover along its path, in segments:
+	 * 0 at off, one more at each waypoint, up to on. Only up to date when saved,
+	 * the KinematicStore of the World moves the mover meanwhile.
 	 */
 	private double current;
 
+	/**
+	 * Row of the mover in the KinematicStore of its World plus one, 0 if none.
+	 */
+	private transient int body;
+
 	/**
 	 * Signifies whether the Mover is being placed by the user on the World.
 	 */
@@ -75,6 +94,7 @@ public class Mover extends Block implements Linkable {
 		super(box, sprite);
 		this.off       = box.getCenter();
 		this.on        = on;
+		this.waypoints = new Vector[0];
 		if(signal != null)
 			this.signal = signal;
 		else
@@ -111,6 +131,20 @@ public class Mover extends Block implements Linkable {
 	}
 
 
+	/**
+	 * Constructor with a path of several positions.
+	 * @param box     Position and size parameters of the Mover, at the start of its path.
+	 * @param sprite  Sprite of the Mover.
+	 * @param path    Positions the Mover goes through in order when the Signal is on,
+	 *                the last one being where it stops. At least one.
+	 * @param signal  Signal linked to the Mover.
+	 */
+	public Mover(Box box, String sprite, Vector[] path, Signal signal) {
+		this(box, sprite, path[path.length - 1], signal, false);
+		this.waypoints = Arrays.copyOf(path, path.length - 1);
+	}
+
+
 
 	@Override
 	public void update(Input input) {
@@ -123,6 +157,7 @@ public class Mover extends Block implements Linkable {
 			off = on;
 			placeable = false;
 			linkable = true;
+			getWorld().getKinematics().setPath(body - 1, getPath(), getBox().getWidth(), getBox().getHeight());
 		}
 
 		// Begin the linking process
@@ -147,30 +182,13 @@ public class Mover extends Block implements Linkable {
 				signal = new Oscillator(3.0);
 			if(input.getKeyboardButton(KeyEvent.VK_P).isPressed())
 				signal = signalTemp;
+			getWorld().getKinematics().setPath(body - 1, getPath(), getBox().getWidth(), getBox().getHeight());
 		}	
 
-		// If everything has been done, the operate normally.
-		if(!placeable && !linkable && !moveable) {
-
-			// Verifies if we arrived at destination.
-			if (signal.isActive()) {
-				current += input.getDeltaTime();
-				if (current > 1.0)
-					current = 1.0;
-			} else {
-				current -= input.getDeltaTime();
-				if (current < 0.0)
-					current = 0.0;
-			}
-
-			// Declares the Vector between on and off
-			Vector change = on.sub(off);
-
-			// The change has an interpolation of -2x^3 + 3x^2, as suggested in the pdf file.
-			setBox(new Box(off.add(change.mul(-2*Math.pow(current,3)+3*Math.pow(current, 2)))
-					, super.getBox().getWidth()
-					, super.getBox().getHeight()));
-		}
+		// If everything has been done, the operate normally: the KinematicStore
+		// moves the Mover towards the end of its path given by the Signal.
+		if(!placeable && !linkable && !moveable)
+			getWorld().getKinematics().setActive(body - 1, signal.isActive());
 	}
 
 
@@ -190,6 +208,35 @@ public class Mover extends Block implements Linkable {
 	}
 
 
+	@Override
+	public boolean isCullable() {
+		// The arrow may be far from its Box
+		return !moveable;
+	}
+
+
+	@Override
+	public boolean isStatic() {
+		// Unlike the other Blocks, a Mover moves
+		return false;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Once placed and linked, a Mover only moves until it reaches the
+		// position given by its Signal
+		return !placeable && !linkable && !moveable
+				&& getWorld().getKinematics().isAtRest(body - 1);
+	}
+
+
+	@Override
+	public Signal getWakeSignal() {
+		return signal;
+	}
+
+
 	@Override
 	public Actor copie() {
 		// Create a new Mover ready for the linking process
@@ -205,6 +252,7 @@ public class Mover extends Block implements Linkable {
 	@Override
 	public void register(World world) {
 		super.register(world);
+		body = world.getKinematics().add(getPath(), current, getBox().getWidth(), getBox().getHeight(), this) + 1;
 		if(signal instanceof Actor)
 			world.register((Actor)signal);
 		else
@@ -222,10 +270,32 @@ public class Mover extends Block implements Linkable {
 			((Actor)signal).unregister();
 		else
 			signal.unregister(getWorld());
+		// Keeps the position along the path, so that it can be saved
+		if(body != 0) {
+			KinematicStore kinematics = getWorld().getKinematics();
+			current = kinematics.getProgress(body - 1);
+			kinematics.remove(body - 1);
+			body = 0;
+		}
 		super.unregister();
 	}
 
 
+	/**
+	 * @return  successive positions of the center of the Mover, from off to on
+	 */
+	private Vector[] getPath() {
+		// Saves made before the waypoints have none
+		int count = waypoints == null ? 0 : waypoints.length;
+		Vector[] path = new Vector[count + 2];
+		path[0] = off;
+		for(int i = 0; i < count; ++i)
+			path[i + 1] = waypoints[i];
+		path[count + 1] = on;
+		return path;
+	}
+
+
 	@Override
 	public void addSignal(Signal signal) {
 		signalTemp = new And(signal, signalTemp);
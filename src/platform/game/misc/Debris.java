@@ -1,7 +1,10 @@
 package platform.game.misc;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
+import platform.game.PhysicsStore;
+import platform.game.World;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -32,6 +35,14 @@ public class Debris extends Actor {
 	 * Speeds of all the sub-Debris.
 	 */
 	private Vector[] velocities;
+
+
+	/**
+	 * Rows of the sub-Debris in the PhysicsStore of the World, null if not
+	 * registered. Once registered, positions and velocities are only updated
+	 * when it is unregistered, e.g. to save the Debris.
+	 */
+	private transient int[] bodies;
 	
 	
 	/**
@@ -80,27 +91,50 @@ public class Debris extends Actor {
 
 	
 	@Override
-	public void update(Input input) {
-		super.update(input);
+	public void register(World world) {
+		super.register(world);
+
+		// All sub-Debris fall with the gravity of the World. The box of the
+		// Debris in itself follows the first one, it is used in hurt().
+		bodies = new int[length];
+		for(int i=0 ; i<length;++i)
+			bodies[i] = world.getPhysics().add(positions[i], velocities[i], size, size, i == 0 ? this : null);
+	}
+
 
-		// Update all positions and velocities using the gravity of the World.
-		double delta = input.getDeltaTime();
+	@Override
+	public void unregister() {
+		// May be called twice if the Debris has been unregistered twice
+		if(bodies != null) {
+			store();
+			for(int i=0 ; i<length;++i)
+				getWorld().getPhysics().remove(bodies[i]);
+			bodies = null;
+		}
+		super.unregister();
+	}
+
+
+	/**
+	 * Copies the positions and the velocities of the sub-Debris into the
+	 * fields, so that they can be saved.
+	 */
+	private void store() {
+		PhysicsStore physics = getWorld().getPhysics();
 		for(int i=0 ; i<length;++i) {
-			velocities[i] = velocities[i].add(getWorld().getGravity().mul(delta));
-			positions[i]  = positions[i].add(velocities[i].mul(delta));
+			positions[i]  = physics.getPosition(bodies[i]);
+			velocities[i] = physics.getVelocity(bodies[i]);
 		}
-		
-		// Set the box of the Debris in itself to the first one. The box is used
-		// in hurt().
-		setBox(new Box(positions[0], size, size));
 	}
 
 
+
 	@Override
 	public void draw(Input input, Output output) {
 		// Draw each individual Debris.
+		PhysicsStore physics = getWorld().getPhysics();
 		for(int i=0 ; i<length;++i)
-			output.drawSprite(getSprite(spriteNames[i]), new Box(positions[i], size, size), input.getTime());
+			output.drawSprite(getSprite(spriteNames[i]), new Box(physics.getPosition(bodies[i]), size, size), input.getTime());
 	}
 
 	
@@ -117,10 +151,30 @@ public class Debris extends Actor {
 	}
 
 	
+	@Override
+	public boolean isSelfContained() {
+		// Only its own pieces are moved
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.EFFECT;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// High priority so it draws in front of a lot of Actors.
 		return 200;
 	}
 
+
+	@Override
+	public boolean isCullable() {
+		// Its pieces fly away from its Box
+		return false;
+	}
+
 }
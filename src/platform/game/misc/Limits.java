@@ -1,5 +1,6 @@
 package platform.game.misc;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
 import platform.util.Box;
@@ -34,6 +35,26 @@ public class Limits extends Actor {
 	}
 
 
+	@Override
+	public boolean hasLocalInteractions() {
+		// Has to interact with the Actors outside of its Box.
+		return false;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.WORLD;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only the Player and the Debris answer to VOID damage
+		return Category.CHARACTER | Category.EFFECT;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Very high priority so almost every Actor is in the range.
@@ -1,6 +1,7 @@
 package platform.game.misc;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.util.Box;
 import platform.util.Input;
 import platform.util.Output;
@@ -117,6 +118,19 @@ public class Particle extends Actor {
 	}
 	
 
+	@Override
+	public boolean isSelfContained() {
+		// Only its own timer is updated
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.EFFECT;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Returns a reduces priority 
@@ -1,5 +1,6 @@
 package platform.game.passive;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
 import platform.util.Box;
@@ -94,6 +95,26 @@ public class Jumper extends Actor {
 	}
 	
 
+	@Override
+	public int getCategory() {
+		return Category.PASSIVE;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only the Player and the Torches answer to AIR damage
+		return Category.CHARACTER | Category.SIGNAL;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only the cooldown after a jump, and the Sprite showing it, are updated
+		return cooldown <= 0.0 && "jumper.normal".equals(getSpriteName());
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Quite high priority to interact with some Actors.
@@ -1,5 +1,6 @@
 package platform.game.passive;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
 import platform.util.Box;
@@ -73,6 +74,25 @@ public class Spike extends Actor {
 	}
 
 
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.PASSIVE;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only the Player answers to PHYSICAL damage
+		return Category.CHARACTER;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Very high priority so Fireballs do not interact with it (they pass through)
@@ -1,5 +1,6 @@
 package platform.game.signal;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.World;
 import platform.game.Actor;
@@ -110,6 +111,26 @@ public class Key extends Actor implements Signal {
 	}
 	
 
+	@Override
+	public int getCategory() {
+		return Category.ITEM;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only the Player answers to KEY damage
+		return Category.CHARACTER;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only a taken Key is updated, to be removed
+		return !taken;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Little higher than the player so it can interact with it.
@@ -1,5 +1,6 @@
 package platform.game.signal;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.World;
 import platform.game.Actor;
@@ -131,6 +132,39 @@ public class Lever extends Actor implements Signal {
 	}
 
 	
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// The Linkables it controls refer to it
+		return false;
+	}
+
+	
+	@Override
+	public boolean isSelfContained() {
+		// Only its own timer is updated
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.SIGNAL;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Once the time has elapsed, only a Lever on for a limited duration may change
+		return time < 0.0 && (duration <= 0.0 || !value);
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// The player should pass in front of the lever.
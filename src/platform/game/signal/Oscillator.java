@@ -1,6 +1,7 @@
 package platform.game.signal;
 
 import platform.game.Actor;
+import platform.game.Category;
 import platform.game.World;
 import platform.util.Input;
 
@@ -49,6 +50,19 @@ public class Oscillator extends Actor implements Signal {
 	}
 
 	
+	@Override
+	public boolean isSelfContained() {
+		// Only its own timer is updated
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.SIGNAL;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Doesn't really matter since the oscillator is not visible
@@ -1,5 +1,6 @@
 package platform.game.signal;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.World;
 import platform.game.Actor;
@@ -136,6 +137,46 @@ public class Torch extends Actor implements Signal {
 	}
 
 
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isStreamable() {
+		// The Linkables it controls refer to it
+		return false;
+	}
+
+
+	@Override
+	public boolean isSelfContained() {
+		// Only its own flickering is updated
+		return true;
+	}
+
+
+	@Override
+	public int getCategory() {
+		return Category.SIGNAL;
+	}
+
+
+	@Override
+	public boolean canSleep() {
+		// Its flickering does not matter far from the View
+		return true;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only a lit Torch flickers
+		return !lit;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Quite low priority so the Player can interact with it and go in front of it.
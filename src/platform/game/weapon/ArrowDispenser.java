@@ -94,6 +94,13 @@ public class ArrowDispenser extends Block {
 	}
 
 
+	@Override
+	public boolean isScenery() {
+		// Its bow turns
+		return false;
+	}
+
+
 	@Override
 	public boolean hurt(Actor instigator, Damage type, double amount, Vector location) {
 		switch(type) {
@@ -116,6 +123,20 @@ public class ArrowDispenser extends Block {
 	}
 
 	
+	@Override
+	public boolean canSleep() {
+		// It only shoots at a Player standing close to it
+		return true;
+	}
+
+
+	@Override
+	public boolean isAtRest() {
+		// Only the cooldown after a shot is updated
+		return !shot;
+	}
+
+
 	@Override
 	public Actor copie() {
 		return new ArrowDispenser(getBox(), cooldown);
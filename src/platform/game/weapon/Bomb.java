@@ -1,7 +1,11 @@
 package platform.game.weapon;
 
 import platform.game.Actor;
+import platform.game.Category;
+import platform.game.Contact;
 import platform.game.Damage;
+import platform.game.PhysicsStore;
+import platform.game.World;
 import platform.game.character.Player;
 import platform.game.misc.Particle;
 import platform.util.Box;
@@ -34,6 +38,14 @@ public class Bomb extends Actor {
 	 * Speed of the Bomb.
 	 */
 	private Vector velocity;
+
+
+	/**
+	 * Row of the Bomb in the PhysicsStore of its World plus one, 0 if not
+	 * registered. Once registered, position and velocity are only updated
+	 * when it is unregistered, e.g. to save the Bomb.
+	 */
+	private transient int body;
 	
 	
 	/**
@@ -117,14 +129,25 @@ public class Bomb extends Actor {
 		super.interact(other);
 		// Rebound on anything solid, applying the rebound factor so it doesn't fly as high as a Fireball
 		if (other.isSolid()) {
-			Vector delta = other.getBox().getCollision(getBox());
-			if (delta != null) {
-				position = position.add(delta);
-				velocity = velocity.mirrored(delta).mul(rebound);
+			Contact contact = getWorld().getContact(other, this);
+			if (contact != null) {
+				Vector delta = contact.getPenetration();
+				PhysicsStore physics = getWorld().getPhysics();
+				physics.setPosition(body - 1, physics.getPosition(body - 1).add(delta));
+				physics.setVelocity(body - 1, physics.getVelocity(body - 1).mirrored(delta).mul(rebound));
+				getWorld().getKinematics().ride(other, this, contact.getNormal());
 			}
 		}
 	}
 
+
+	@Override
+	public void carry(Vector delta) {
+		PhysicsStore physics = getWorld().getPhysics();
+		physics.setPosition(body - 1, physics.getPosition(body - 1).add(delta));
+		setBox(getBox().add(delta));
+	}
+
 	
 	@Override
 	public void update(Input input) {
@@ -150,7 +173,7 @@ public class Bomb extends Actor {
 					, owner
 					, Damage.EXPLOSION
 					, 4.0
-					, position);
+					, getWorld().getPhysics().getPosition(body - 1));
 			
 			// Register 3 new Particles (the smoke)
 			getWorld().register(new Particle(
@@ -180,11 +203,41 @@ public class Bomb extends Actor {
 			getWorld().unregister(this);
 		}		
 		
-		// Update the position, the velocity, and the Box.
-		velocity = velocity.add(getWorld().getGravity().mul(delta));
-		position = position.add(velocity.mul(delta));
-		setBox(new Box(position, getBox().getWidth(), getBox().getHeight()));
+		// The position, the velocity and the Box are updated by the PhysicsStore of the World
 	}
+
+
+	@Override
+	public void register(World world) {
+		super.register(world);
+		body = world.getPhysics().add(position, velocity, getBox().getWidth(), getBox().getHeight(), this) + 1;
+		// Thrown Bombs must not cross thin Blocks
+		world.getPhysics().setSwept(body - 1, getBox().getWidth(), getBox().getHeight());
+	}
+
+
+	@Override
+	public void unregister() {
+		// May be called twice if the Bomb has been unregistered twice
+		if(body != 0) {
+			store();
+			getWorld().getPhysics().remove(body - 1);
+			body = 0;
+		}
+		super.unregister();
+	}
+
+
+	/**
+	 * Copies the position and the velocity of the body into the fields,
+	 * so that they can be saved.
+	 */
+	private void store() {
+		PhysicsStore physics = getWorld().getPhysics();
+		position = physics.getPosition(body - 1);
+		velocity = physics.getVelocity(body - 1);
+	}
+
 	
 	
 	@Override
@@ -219,6 +272,19 @@ public class Bomb extends Actor {
 	}
 
 
+	@Override
+	public int getCategory() {
+		return Category.PROJECTILE;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Only rebounds on solid Actors
+		return Category.BLOCK | Category.PASSIVE | Category.PROJECTILE;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// Lower priority than the Fireballs but still a high priority
@@ -1,7 +1,10 @@
 package platform.game.weapon;
 
+import platform.game.Category;
 import platform.game.Damage;
 import platform.game.Actor;
+import platform.game.PhysicsStore;
+import platform.game.World;
 import platform.game.signal.Torch;
 import platform.util.Box;
 import platform.util.Input;
@@ -27,6 +30,14 @@ public class Fireball extends Actor {
 	 * Speed of the Fireball.
 	 */
 	private Vector velocity;
+
+
+	/**
+	 * Row of the Fireball in the PhysicsStore of its World plus one, 0 if not
+	 * registered. Once registered, position and velocity are only updated
+	 * when it is unregistered, e.g. to save the Fireball.
+	 */
+	private transient int body;
 	
 	
 	/**
@@ -89,19 +100,21 @@ public class Fireball extends Actor {
 		// Check if the other Actor is Solid and not the owner OR a Torch
 		if ((other.isSolid() && other != owner)
 				|| isTorch) {
-			Vector delta = other.getBox().getCollision(position);
+			PhysicsStore physics = getWorld().getPhysics();
+			Vector position = physics.getPosition(body - 1);
+			Vector delta = other.getCollision(new Box(position, position));
 			// If it's the case and both of the actors are colliding,
 			// deal some FIRE type Damages (amount 1.0)
 			// If successful, then unregister the Fireball
-			if (other.getBox().isColliding(getBox())
-					&& other.hurt(this, Damage.FIRE, 1.0, getPosition()))
+			if (other.isColliding(getBox())
+					&& other.hurt(getBox(), this, Damage.FIRE, 1.0, getPosition()))
 					getWorld().unregister(this);
 			
 			// If delta exists AND the actor is not a torch,
 			// then modify accordingly the position and the velocity
 			if (delta != null && !isTorch) {
-				position = position.add(delta);
-				velocity = velocity.mirrored(delta);
+				physics.setPosition(body - 1, physics.getPosition(body - 1).add(delta));
+				physics.setVelocity(body - 1, physics.getVelocity(body - 1).mirrored(delta));
 			}
 		}
 
@@ -120,10 +133,39 @@ public class Fireball extends Actor {
 		if(lifespan < 0.0)
 			getWorld().unregister(this);
 		
-		// Update the position
-		velocity = velocity.add(getWorld().getGravity().mul(delta));
-		position = position.add(velocity.mul(delta));
-		setBox(new Box(position, getBox().getWidth(), getBox().getHeight()));
+		// The position and the Box are updated by the PhysicsStore of the World
+	}
+
+
+	@Override
+	public void register(World world) {
+		super.register(world);
+		body = world.getPhysics().add(position, velocity, getBox().getWidth(), getBox().getHeight(), this) + 1;
+		// Only the center bounces, so it must not cross thin Blocks
+		world.getPhysics().setSwept(body - 1, 0.0, 0.0);
+	}
+
+
+	@Override
+	public void unregister() {
+		// May be called twice if the Fireball has been unregistered twice
+		if(body != 0) {
+			store();
+			getWorld().getPhysics().remove(body - 1);
+			body = 0;
+		}
+		super.unregister();
+	}
+
+
+	/**
+	 * Copies the position and the velocity of the body into the fields,
+	 * so that they can be saved.
+	 */
+	private void store() {
+		PhysicsStore physics = getWorld().getPhysics();
+		position = physics.getPosition(body - 1);
+		velocity = physics.getVelocity(body - 1);
 	}
 
 	
@@ -136,6 +178,19 @@ public class Fireball extends Actor {
 	}
 
 	
+	@Override
+	public int getCategory() {
+		return Category.PROJECTILE;
+	}
+
+
+	@Override
+	public int getCollisionMask() {
+		// Rebounds on solid Actors and lights the Torches
+		return Category.BLOCK | Category.PASSIVE | Category.PROJECTILE | Category.SIGNAL;
+	}
+
+
 	@Override
 	protected int getPriority() {
 		// High priority so it interacts with almost everything
@@ -0,0 +1,380 @@
+package platform.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Dynamic bounding volume hierarchy of axis-aligned boxes.
+ * <p>
+ * Each element is stored in a leaf with a box slightly larger than its real
+ * one, so small movements do not change the tree. The tree is kept balanced
+ * with rotations. Nodes are stored in primitive arrays and referred to by
+ * their index, called proxy.
+ * @param <E> type of element
+ */
+public class AABBTree<E> {
+
+    /** Index of a missing node */
+    public static final int NULL = -1;
+
+    private final double margin;
+
+    // Nodes, stored as columns
+    private double[] minX, minY, maxX, maxY;
+    private int[] parent, child1, child2, height;
+    private Object[] items;
+
+    private int root;
+    private int free;
+    private int size;
+
+    // Traversal stack of each thread, reused between queries, which may run
+    // in parallel as long as the tree is not modified
+    private final ThreadLocal<int[]> stacks = ThreadLocal.withInitial(() -> new int[64]);
+
+    /**
+     * Creates a new empty tree.
+     * @param margin enlargement of the boxes of the leaves, non negative
+     */
+    public AABBTree(double margin) {
+        if (margin < 0.0)
+            throw new IllegalArgumentException("margin must be non negative");
+        this.margin = margin;
+        minX = new double[0];
+        minY = new double[0];
+        maxX = new double[0];
+        maxY = new double[0];
+        parent = new int[0];
+        child1 = new int[0];
+        child2 = new int[0];
+        height = new int[0];
+        items = new Object[0];
+        root = NULL;
+        free = NULL;
+        grow(16);
+    }
+
+    /** @return number of elements in the tree */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an element.
+     * @param item element, not null
+     * @param box current box of the element, not null
+     * @return proxy of the element, used to move or remove it
+     */
+    public int insert(E item, Box box) {
+        int leaf = allocate();
+        setFat(leaf, box);
+        items[leaf] = item;
+        height[leaf] = 0;
+        insertLeaf(leaf);
+        ++size;
+        return leaf;
+    }
+
+    /**
+     * Removes an element.
+     * @param proxy value returned by insert
+     */
+    public void remove(int proxy) {
+        removeLeaf(proxy);
+        release(proxy);
+        --size;
+    }
+
+    /**
+     * Updates the box of an element. Nothing is done if the new box is still
+     * inside the enlarged box of the leaf.
+     * @param proxy value returned by insert
+     * @param box new box of the element, not null
+     * @return whether the tree has been modified
+     */
+    public boolean move(int proxy, Box box) {
+        if (minX[proxy] <= box.getMin().getX() && minY[proxy] <= box.getMin().getY()
+                && maxX[proxy] >= box.getMax().getX() && maxY[proxy] >= box.getMax().getY())
+            return false;
+        removeLeaf(proxy);
+        setFat(proxy, box);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    /**
+     * @param proxy value returned by insert
+     * @return element stored at this proxy, or null if none
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int proxy) {
+        if (proxy < 0 || proxy >= items.length || height[proxy] != 0)
+            return null;
+        return (E)items[proxy];
+    }
+
+    /** Removes all elements */
+    public void clear() {
+        Arrays.fill(items, null);
+        int capacity = items.length;
+        root = NULL;
+        free = NULL;
+        size = 0;
+        for (int i = capacity - 1; i >= 0; --i) {
+            height[i] = -1;
+            parent[i] = free;
+            free = i;
+        }
+    }
+
+    /**
+     * Finds the elements whose enlarged box overlaps the specified area.
+     * @param area searched area, not null
+     * @param result collection receiving the elements, not null
+     */
+    public void query(Box area, Collection<? super E> result) {
+        query(area.getMin().getX(), area.getMin().getY(), area.getMax().getX(), area.getMax().getY(), result);
+    }
+
+    /**
+     * Finds the elements whose enlarged box overlaps the specified area.
+     * @param x0 left side of the area
+     * @param y0 bottom side of the area
+     * @param x1 right side of the area
+     * @param y1 top side of the area
+     * @param result collection receiving the elements, not null
+     */
+    @SuppressWarnings("unchecked")
+    public void query(double x0, double y0, double x1, double y1, Collection<? super E> result) {
+        if (root == NULL)
+            return;
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (minX[node] > x1 || maxX[node] < x0 || minY[node] > y1 || maxY[node] < y0)
+                continue;
+            if (height[node] == 0)
+                result.add((E)items[node]);
+            else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    stacks.set(stack);
+                }
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+    }
+
+    // Stores the enlarged box of a leaf
+    private void setFat(int node, Box box) {
+        minX[node] = box.getMin().getX() - margin;
+        minY[node] = box.getMin().getY() - margin;
+        maxX[node] = box.getMax().getX() + margin;
+        maxY[node] = box.getMax().getY() + margin;
+    }
+
+    // Half perimeter of the union of two nodes, used as cost
+    private double cost(int a, int b) {
+        return Math.max(maxX[a], maxX[b]) - Math.min(minX[a], minX[b])
+                + Math.max(maxY[a], maxY[b]) - Math.min(minY[a], minY[b]);
+    }
+
+    // Half perimeter of a node
+    private double cost(int a) {
+        return maxX[a] - minX[a] + maxY[a] - minY[a];
+    }
+
+    // Recomputes the box and height of an inner node from its children
+    private void refit(int node) {
+        int a = child1[node];
+        int b = child2[node];
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+        height[node] = 1 + Math.max(height[a], height[b]);
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+
+        // Find the best sibling, using the surface area heuristic
+        int index = root;
+        while (height[index] > 0) {
+            int a = child1[index];
+            int b = child2[index];
+            double combined = cost(index, leaf);
+            double here = 2.0 * combined;
+            double inheritance = 2.0 * (combined - cost(index));
+            double costA = (height[a] == 0 ? cost(a, leaf) : cost(a, leaf) - cost(a)) + inheritance;
+            double costB = (height[b] == 0 ? cost(b, leaf) : cost(b, leaf) - cost(b)) + inheritance;
+            if (here < costA && here < costB)
+                break;
+            index = costA < costB ? a : b;
+        }
+
+        // Create a new parent for the sibling and the leaf
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocate();
+        parent[newParent] = oldParent;
+        items[newParent] = null;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        refit(newParent);
+        if (oldParent == NULL)
+            root = newParent;
+        else if (child1[oldParent] == sibling)
+            child1[oldParent] = newParent;
+        else
+            child2[oldParent] = newParent;
+
+        // Walk back up, fixing heights and boxes
+        index = parent[leaf];
+        while (index != NULL) {
+            index = balance(index);
+            refit(index);
+            index = parent[index];
+        }
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = child1[p] == leaf ? child2[p] : child1[p];
+        if (grandParent == NULL) {
+            root = sibling;
+            parent[sibling] = NULL;
+            release(p);
+            return;
+        }
+        if (child1[grandParent] == p)
+            child1[grandParent] = sibling;
+        else
+            child2[grandParent] = sibling;
+        parent[sibling] = grandParent;
+        release(p);
+
+        int index = grandParent;
+        while (index != NULL) {
+            index = balance(index);
+            refit(index);
+            index = parent[index];
+        }
+    }
+
+    // Performs a left or right rotation if the node is imbalanced, returns the new subtree root
+    private int balance(int a) {
+        if (height[a] < 2)
+            return a;
+        int b = child1[a];
+        int c = child2[a];
+        int balance = height[c] - height[b];
+
+        // Rotate c up
+        if (balance > 1) {
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replace(parent[c], a, c);
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+            }
+            refit(a);
+            refit(c);
+            return c;
+        }
+
+        // Rotate b up
+        if (balance < -1) {
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replace(parent[b], a, b);
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+            }
+            refit(a);
+            refit(b);
+            return b;
+        }
+        return a;
+    }
+
+    // Replaces a child of a node (or the root)
+    private void replace(int node, int oldChild, int newChild) {
+        if (node == NULL)
+            root = newChild;
+        else if (child1[node] == oldChild)
+            child1[node] = newChild;
+        else
+            child2[node] = newChild;
+    }
+
+    private int allocate() {
+        if (free == NULL)
+            grow(items.length * 2);
+        int node = free;
+        free = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        return node;
+    }
+
+    private void release(int node) {
+        items[node] = null;
+        height[node] = -1;
+        parent[node] = free;
+        free = node;
+    }
+
+    private void grow(int capacity) {
+        int old = items.length;
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        child1 = Arrays.copyOf(child1, capacity);
+        child2 = Arrays.copyOf(child2, capacity);
+        height = Arrays.copyOf(height, capacity);
+        items = Arrays.copyOf(items, capacity);
+        for (int i = capacity - 1; i >= old; --i) {
+            height[i] = -1;
+            parent[i] = free;
+            free = i;
+        }
+    }
+
+}
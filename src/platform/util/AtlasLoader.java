@@ -0,0 +1,279 @@
+package platform.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Loads the small sprites of a folder as regions of a few large images, the
+ * pages of an atlas, so that drawing them rarely switches images.
+ * <p>
+ * The atlas is packed once, then saved along with the list of its regions
+ * in a cache folder. It is packed again only when the files of the sprite
+ * folder change. Sprites too large to be packed, and those missing from
+ * the folder, are given by the fallback loader.
+ */
+public class AtlasLoader implements Loader {
+
+    private static final String[] EXTENSIONS = {
+        ".png", ".jpg", ".jpeg", ".bmp"
+    };
+
+    /** Size of a page, in pixels */
+    public static final int PAGE_SIZE = 1024;
+
+    /** Largest side of a packed sprite, in pixels */
+    public static final int MAX_SPRITE_SIZE = 256;
+
+    // Transparent pixels between two regions, so that filtering does not mix them
+    private static final int PADDING = 1;
+
+    // Changes when the format of the cache does
+    private static final int VERSION = 1;
+
+    private Map<String, Sprite> sprites;
+    private int pages;
+    private Loader fallback;
+
+    // Pages packed by this loader, kept until they are saved
+    private List<BufferedImage> pageImages;
+    private List<List<String>> pageNames;
+    private List<List<int[]>> pageRegions;
+
+    /**
+     * Creates a new atlas loader, reading the atlas from the cache folder or
+     * packing it again if the sprite folder changed since.
+     * @param folder folder of the sprites, not null
+     * @param cache folder where the atlas is saved, created if needed, not null
+     * @param fallback loader used for the sprites not in the atlas, not null
+     */
+    public AtlasLoader(String folder, String cache, Loader fallback) {
+        if (folder == null || cache == null || fallback == null)
+            throw new NullPointerException();
+        this.fallback = fallback;
+        sprites = new HashMap<>();
+        pageImages = new ArrayList<>();
+        pageNames = new ArrayList<>();
+        pageRegions = new ArrayList<>();
+
+        File[] files = new File(folder).listFiles();
+        if (files == null)
+            return;
+        Arrays.sort(files);
+        long stamp = stamp(files);
+        File directory = new File(cache);
+        if (!read(directory, stamp)) {
+            pack(files);
+            write(directory, stamp);
+        }
+    }
+
+    @Override
+    public Sprite getSprite(String name) {
+        Sprite sprite = sprites.get(name);
+        if (sprite == null)
+            sprite = fallback.getSprite(name);
+        return sprite;
+    }
+
+    /** @return number of sprites in the atlas */
+    public int getSprites() {
+        return sprites.size();
+    }
+
+    /** @return number of pages of the atlas */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * @param file a file, not null
+     * @return name of the sprite held by the file, null if it is not an image
+     */
+    private static String name(File file) {
+        String name = file.getName();
+        for (String extension : EXTENSIONS)
+            if (name.toLowerCase().endsWith(extension))
+                return name.substring(0, name.length() - extension.length());
+        return null;
+    }
+
+    /**
+     * @param files content of the sprite folder, sorted, not null
+     * @return hash of the names, sizes and dates of the images
+     */
+    private static long stamp(File[] files) {
+        long stamp = VERSION;
+        stamp = stamp * 31 + PAGE_SIZE;
+        stamp = stamp * 31 + MAX_SPRITE_SIZE;
+        for (File file : files)
+            if (file.isFile() && name(file) != null) {
+                stamp = stamp * 31 + file.getName().hashCode();
+                stamp = stamp * 31 + file.length();
+                stamp = stamp * 31 + file.lastModified();
+            }
+        return stamp;
+    }
+
+    /**
+     * Packs the small images into pages, row after row from the tallest
+     * image to the smallest.
+     * @param files content of the sprite folder, not null
+     */
+    private void pack(File[] files) {
+        List<String> names = new ArrayList<>();
+        List<BufferedImage> images = new ArrayList<>();
+        for (File file : files) {
+            String name = name(file);
+            if (name == null || !file.isFile())
+                continue;
+            BufferedImage image;
+            try {
+                image = ImageIO.read(file);
+            } catch (IOException e) {
+                continue;
+            }
+            if (image == null || image.getWidth() > MAX_SPRITE_SIZE || image.getHeight() > MAX_SPRITE_SIZE)
+                continue;
+            names.add(name);
+            images.add(image);
+        }
+        Integer[] order = new Integer[images.size()];
+        for (int i = 0; i < order.length; ++i)
+            order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> -images.get(i).getHeight())
+                .thenComparing(i -> names.get(i)));
+
+        // Regions are placed on the current page, then copied as one sprite
+        BufferedImage page = null;
+        Graphics2D graphics = null;
+        List<String> placed = new ArrayList<>();
+        List<int[]> regions = new ArrayList<>();
+        int x = 0, y = 0, row = 0;
+        for (int i : order) {
+            BufferedImage image = images.get(i);
+            int width = image.getWidth();
+            int height = image.getHeight();
+            if (page != null && x + width > PAGE_SIZE) {
+                x = 0;
+                y += row + PADDING;
+                row = 0;
+            }
+            if (page != null && y + height > PAGE_SIZE) {
+                graphics.dispose();
+                publish(page, placed, regions);
+                page = null;
+            }
+            if (page == null) {
+                page = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+                graphics = page.createGraphics();
+                x = 0;
+                y = 0;
+                row = 0;
+            }
+            graphics.drawImage(image, x, y, null);
+            placed.add(names.get(i));
+            regions.add(new int[] {x, y, width, height});
+            x += width + PADDING;
+            row = Math.max(row, height);
+        }
+        if (page != null) {
+            graphics.dispose();
+            publish(page, placed, regions);
+        }
+    }
+
+    /**
+     * Adds a page and its regions to the atlas.
+     * @param page image of the page, not null
+     * @param names names of the sprites of the page, emptied, not null
+     * @param regions left, top, width and height of each sprite, emptied, not null
+     */
+    private void publish(BufferedImage page, List<String> names, List<int[]> regions) {
+        Sprite sprite = new Sprite(page);
+        for (int i = 0; i < names.size(); ++i) {
+            int[] r = regions.get(i);
+            sprites.put(names.get(i), new Sprite(sprite, r[0], r[1], r[2], r[3]));
+        }
+        ++pages;
+        pageImages.add(page);
+        pageNames.add(new ArrayList<>(names));
+        pageRegions.add(new ArrayList<>(regions));
+        names.clear();
+        regions.clear();
+    }
+
+    /**
+     * Saves the packed pages and the list of their regions. The atlas is
+     * packed again next time if it cannot be saved.
+     * @param directory cache folder, not null
+     * @param stamp hash of the sprite folder
+     */
+    private void write(File directory, long stamp) {
+        directory.mkdirs();
+        try {
+            for (int p = 0; p < pageImages.size(); ++p)
+                ImageIO.write(pageImages.get(p), "png", new File(directory, "page" + p + ".png"));
+            try (PrintWriter out = new PrintWriter(new FileWriter(new File(directory, "atlas.txt")))) {
+                out.println(stamp + " " + pageImages.size());
+                for (int p = 0; p < pageImages.size(); ++p)
+                    for (int i = 0; i < pageNames.get(p).size(); ++i) {
+                        int[] r = pageRegions.get(p).get(i);
+                        out.println(p + " " + r[0] + " " + r[1] + " " + r[2] + " " + r[3] + " " + pageNames.get(p).get(i));
+                    }
+            }
+        } catch (IOException e) {}
+        pageImages.clear();
+        pageNames.clear();
+        pageRegions.clear();
+    }
+
+    /**
+     * Reads the atlas saved in the cache folder, if it was packed from the
+     * same sprite folder.
+     * @param directory cache folder, not null
+     * @param stamp hash of the sprite folder
+     * @return whether the atlas was read
+     */
+    private boolean read(File directory, long stamp) {
+        File list = new File(directory, "atlas.txt");
+        if (!list.isFile())
+            return false;
+        Map<String, Sprite> read = new HashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(list))) {
+            String[] header = in.readLine().split(" ");
+            if (Long.parseLong(header[0]) != stamp)
+                return false;
+            Sprite[] pages = new Sprite[Integer.parseInt(header[1])];
+            for (int p = 0; p < pages.length; ++p)
+                pages[p] = new Sprite(new File(directory, "page" + p + ".png"));
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split(" ", 6);
+                read.put(fields[5], new Sprite(pages[Integer.parseInt(fields[0])],
+                        Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            }
+            this.pages = pages.length;
+        } catch (IOException | RuntimeException e) {
+            // A damaged cache is packed again
+            return false;
+        }
+        sprites = read;
+        return true;
+    }
+
+}
@@ -4,6 +4,10 @@ import java.io.Serializable;
 
 /**
  * Represents an immutable bounding-box, defined by a minimum and maximum.
+ * <p>
+ * Center and size are computed once, on first use. Tests between boxes and
+ * points do not create any object, except for the returned translations.
+ * @see Geometry
  */
 public final class Box implements Serializable {
 
@@ -14,6 +18,9 @@ public final class Box implements Serializable {
 	
 	private final Vector min, max;
 	
+	// Computed on first use, not saved
+	private transient Vector center, size;
+	
     /**
      * Create a new box.
      * @param min lower-left corner, not null
@@ -49,33 +56,36 @@ public final class Box implements Serializable {
 	
     /** @return middle point */
 	public Vector getCenter() {
-		return min.add(max).mul(0.5);
+		if (center == null)
+			center = new Vector((min.getX() + max.getX()) * 0.5, (min.getY() + max.getY()) * 0.5);
+		return center;
 	}
     
     /** @return horizontal size */
     public double getWidth() {
-        return getSize().getX();
+        return max.getX() - min.getX();
     }
     
     /** @return vertical size */
     public double getHeight() {
-        return getSize().getY();
+        return max.getY() - min.getY();
     }
 	
     /** @return width and height */
 	public Vector getSize() {
-		return max.sub(min);
+		if (size == null)
+			size = new Vector(getWidth(), getHeight());
+		return size;
 	}
     
     /** @return radius of largest circle inside box */
     public double getInnerRadius() {
-        Vector size = getSize();
-        return Math.min(size.getX(), size.getY());
+        return Math.min(getWidth(), getHeight());
     }
     
     /** @return radius of smallest circle outside box */
     public double getOuterRadius() {
-        return getSize().getLength() * 0.5;
+        return Math.sqrt(getWidth() * getWidth() + getHeight() * getHeight()) * 0.5;
     }
     
 	@Override
@@ -103,7 +113,7 @@ public final class Box implements Serializable {
 	public boolean isColliding(Vector point) {
         if (point == null)
             return false;
-		return point.getX() > min.getX() && point.getX() < max.getX() && point.getY() > min.getY() && point.getY() < max.getY(); 
+		return Geometry.contains(min.getX(), min.getY(), max.getX(), max.getY(), point.getX(), point.getY());
 	}
 	
     /**
@@ -113,9 +123,8 @@ public final class Box implements Serializable {
 	public boolean isColliding(Box box) {
         if (box == null)
             return false;
-		Vector min = this.min.max(box.min);
-		Vector max = this.max.min(box.max);
-		return min.getX() < max.getX() && min.getY() < max.getY();
+		return Geometry.overlaps(min.getX(), min.getY(), max.getX(), max.getY(),
+				box.min.getX(), box.min.getY(), box.max.getX(), box.max.getY());
 	}
 	
     /**
@@ -123,7 +132,7 @@ public final class Box implements Serializable {
      * @return smallest direction to move the point outside this box
      */
 	public Vector getCollision(Vector point) {
-		return getCollision(new Box(point, point));
+		return getCollision(point.getX(), point.getY(), point.getX(), point.getY());
 	}
 	
     /**
@@ -131,23 +140,31 @@ public final class Box implements Serializable {
      * @return smallest direction to move the box outside this box
      */
 	public Vector getCollision(Box box) {
-		double left = box.getMax().getX() - min.getX();
-		if (left <= 0.0)
-			return null;
-		double right = max.getX() - box.getMin().getX();
-		if (right <= 0.0)
-			return null;
-		double bottom = box.getMax().getY() - min.getY();
-		if (bottom <= 0.0)
-			return null;
-		double top = max.getY() - box.getMin().getY();
-		if (top <= 0.0)
+		return getCollision(box.min.getX(), box.min.getY(), box.max.getX(), box.max.getY());
+	}
+	
+	// Smallest translation of the given bounds outside this box, null if they do not overlap
+	private Vector getCollision(double u0, double v0, double u1, double v1) {
+		double x0 = min.getX(), y0 = min.getY(), x1 = max.getX(), y1 = max.getY();
+		if (u1 <= x0 || x1 <= u0 || v1 <= y0 || y1 <= v0)
 			return null;
-		double horizontal = Math.min(left, right);
-		double vertical = Math.min(bottom, top);
-		if (horizontal < vertical)
-			return new Vector(left < right ? -left : right, 0.0);
-		return new Vector(0.0, bottom < top ? -bottom : top);
+		return new Vector(Geometry.penetrationX(x0, y0, x1, y1, u0, v0, u1, v1),
+				Geometry.penetrationY(x0, y0, x1, y1, u0, v0, u1, v1));
+	}
+	
+    /**
+     * Computes when this box, moving by the given displacement, begins to
+     * intersect another one, so that fast boxes do not go through thin ones.
+     * @param displacement movement of this box, not null
+     * @param box other box, not null
+     * @return fraction of the displacement, between 0.0 and 1.0, at which the
+     * boxes begin to intersect, 0.0 if they already do, or positive infinity
+     * if they do not during the movement
+     */
+	public double getTimeOfImpact(Vector displacement, Box box) {
+		return Geometry.timeOfImpact(min.getX(), min.getY(), max.getX(), max.getY(),
+				displacement.getX(), displacement.getY(),
+				box.min.getX(), box.min.getY(), box.max.getX(), box.max.getY());
 	}
 	
     /**
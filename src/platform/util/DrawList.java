@@ -0,0 +1,234 @@
+package platform.util;
+
+import java.util.Arrays;
+
+/**
+ * Records the sprites drawn in a frame, to draw them later on another output,
+ * possibly from another thread.
+ * <p>
+ * Once handed over, a list must not be modified until it is given back, which
+ * makes it immutable for its reader. Storage is reused from frame to frame,
+ * and the areas are kept as primitive columns, so that the whole list is
+ * replayed in a single batch.
+ */
+public class DrawList implements Output {
+
+    private Box box;
+    private Sprite[] sprites;
+    private double[] x, y, width, height;
+    private double[] angles;
+    private double[] transparencies;
+    private int size;
+
+    // Commands replayed in an area, copied from the others
+    private Sprite[] selectedSprites;
+    private double[] selectedX, selectedY, selectedWidth, selectedHeight, selectedAngles, selectedTransparencies;
+
+    // Bounds of the changes found by getChanges
+    private double minX, minY, maxX, maxY;
+
+    /** Creates a new empty list, with an empty visible area */
+    public DrawList() {
+        box = Box.EMPTY;
+        sprites = new Sprite[256];
+        x = new double[256];
+        y = new double[256];
+        width = new double[256];
+        height = new double[256];
+        angles = new double[256];
+        transparencies = new double[256];
+        size = 0;
+    }
+
+    /**
+     * Removes all commands, to record a new frame.
+     * @param box visible bounds of the frame, not null
+     */
+    public void clear(Box box) {
+        if (box == null)
+            throw new NullPointerException();
+        this.box = box;
+        // Do not keep the sprites of the previous frame alive
+        Arrays.fill(sprites, 0, size, null);
+        size = 0;
+    }
+
+    /** @return number of recorded commands */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Draws all recorded commands, in order.
+     * @param output where to draw, not null
+     */
+    public void replay(Output output) {
+        output.drawSprites(sprites, x, y, width, height, angles, transparencies, size);
+    }
+
+    /**
+     * Draws the recorded commands that may touch an area, in order.
+     * @param output where to draw, not null
+     * @param area bounds of the pixels to draw, not null
+     */
+    public void replay(Output output, Box area) {
+        if (selectedSprites == null || selectedSprites.length < size) {
+            int capacity = sprites.length;
+            selectedSprites = new Sprite[capacity];
+            selectedX = new double[capacity];
+            selectedY = new double[capacity];
+            selectedWidth = new double[capacity];
+            selectedHeight = new double[capacity];
+            selectedAngles = new double[capacity];
+            selectedTransparencies = new double[capacity];
+        }
+        double u0 = area.getMin().getX(), v0 = area.getMin().getY();
+        double u1 = area.getMax().getX(), v1 = area.getMax().getY();
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            double w = halfWidth(i), h = halfHeight(i);
+            if (x[i] + w < u0 || x[i] - w > u1 || y[i] + h < v0 || y[i] - h > v1)
+                continue;
+            selectedSprites[count] = sprites[i];
+            selectedX[count] = x[i];
+            selectedY[count] = y[i];
+            selectedWidth[count] = width[i];
+            selectedHeight[count] = height[i];
+            selectedAngles[count] = angles[i];
+            selectedTransparencies[count] = transparencies[i];
+            ++count;
+        }
+        output.drawSprites(selectedSprites, selectedX, selectedY, selectedWidth, selectedHeight,
+                selectedAngles, selectedTransparencies, count);
+        Arrays.fill(selectedSprites, 0, count, null);
+    }
+
+    /**
+     * Finds the area whose pixels may differ from those drawn by another
+     * list: the bounds of the commands that differ, in either list. Once a
+     * command is added or removed, all the following ones are included.
+     * Areas are compared exactly: even a move by a fraction of pixel may
+     * change the pixels on the edges of a sprite, and would build up
+     * unnoticed from frame to frame otherwise.
+     * @param previous list drawn before, not null
+     * @return bounds of the changes, the whole visible area if it changed, null if both lists draw the same
+     */
+    public Box getChanges(DrawList previous) {
+        if (!box.equals(previous.box))
+            return box;
+        minX = minY = Double.POSITIVE_INFINITY;
+        maxX = maxY = Double.NEGATIVE_INFINITY;
+        int common = Math.min(size, previous.size);
+        int i = 0;
+        for (; i < common; ++i) {
+            if (sprites[i] == previous.sprites[i] && x[i] == previous.x[i] && y[i] == previous.y[i]
+                    && width[i] == previous.width[i] && height[i] == previous.height[i]
+                    && angles[i] == previous.angles[i] && transparencies[i] == previous.transparencies[i])
+                continue;
+            if (size != previous.size)
+                break;
+            include(i, this);
+            previous.include(i, this);
+        }
+        for (int j = i; j < size; ++j)
+            include(j, this);
+        for (int j = i; j < previous.size; ++j)
+            previous.include(j, this);
+        if (minX > maxX)
+            return null;
+        return new Box(new Vector(minX, minY), new Vector(maxX, maxY));
+    }
+
+    // Enlarges the bounds of the changes of a list to a command of this one
+    private void include(int i, DrawList changes) {
+        double w = halfWidth(i), h = halfHeight(i);
+        changes.minX = Math.min(changes.minX, x[i] - w);
+        changes.minY = Math.min(changes.minY, y[i] - h);
+        changes.maxX = Math.max(changes.maxX, x[i] + w);
+        changes.maxY = Math.max(changes.maxY, y[i] + h);
+    }
+
+    // Half of the horizontal extent of a command, its radius once rotated
+    private double halfWidth(int i) {
+        return angles[i] == 0.0 ? width[i] * 0.5 : Math.hypot(width[i], height[i]) * 0.5;
+    }
+
+    // Half of the vertical extent of a command, its radius once rotated
+    private double halfHeight(int i) {
+        return angles[i] == 0.0 ? height[i] * 0.5 : Math.hypot(width[i], height[i]) * 0.5;
+    }
+
+    @Override
+    public Box getBox() {
+        return box;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location) {
+        drawSprite(sprite, location, 0.0, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle) {
+        drawSprite(sprite, location, angle, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
+        if (sprite == null || location == null)
+            throw new NullPointerException();
+        if (transparency <= 0.0)
+            return;
+        if (size == sprites.length)
+            reserve(size + 1);
+        Vector min = location.getMin();
+        Vector max = location.getMax();
+        sprites[size] = sprite;
+        x[size] = (min.getX() + max.getX()) * 0.5;
+        y[size] = (min.getY() + max.getY()) * 0.5;
+        width[size] = max.getX() - min.getX();
+        height[size] = max.getY() - min.getY();
+        angles[size] = angle;
+        transparencies[size] = transparency;
+        ++size;
+    }
+
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        reserve(size + count);
+        for (int i = 0; i < count; ++i) {
+            double transparency = transparencies == null ? 1.0 : transparencies[i];
+            if (transparency <= 0.0)
+                continue;
+            if (sprites[i] == null)
+                throw new NullPointerException();
+            this.sprites[size] = sprites[i];
+            this.x[size] = x[i];
+            this.y[size] = y[i];
+            this.width[size] = width[i];
+            this.height[size] = height[i];
+            this.angles[size] = angles == null ? 0.0 : angles[i];
+            this.transparencies[size] = transparency;
+            ++size;
+        }
+    }
+
+    /**
+     * Makes room for a number of commands.
+     * @param capacity number of commands, recorded ones included
+     */
+    private void reserve(int capacity) {
+        if (capacity <= sprites.length)
+            return;
+        capacity = Math.max(capacity, sprites.length * 2);
+        sprites = Arrays.copyOf(sprites, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        angles = Arrays.copyOf(angles, capacity);
+        transparencies = Arrays.copyOf(transparencies, capacity);
+    }
+
+}
@@ -0,0 +1,162 @@
+package platform.util;
+
+/**
+ * Provides overlap and penetration tests on boxes given by their bounds,
+ * without creating any object. Boxes are given as (minX, minY, maxX, maxY).
+ * Boxes that only touch are not overlapping.
+ * <p>
+ * The batch tests compare one box with a range of boxes packed in four
+ * arrays. Their loops have no branch: the index of every box is written, and
+ * the count only grows for the boxes that pass, so that the JIT compiler can
+ * unroll them and their speed does not depend on the data.
+ * @see Box
+ */
+public final class Geometry {
+
+    private Geometry() {}
+
+    /**
+     * @return whether both boxes intersect
+     */
+    public static boolean overlaps(double x0, double y0, double x1, double y1,
+            double u0, double v0, double u1, double v1) {
+        return Math.max(x0, u0) < Math.min(x1, u1) && Math.max(y0, v0) < Math.min(y1, v1);
+    }
+
+    /**
+     * @return whether point (x, y) is strictly inside the box
+     */
+    public static boolean contains(double x0, double y0, double x1, double y1, double x, double y) {
+        return x > x0 && x < x1 && y > y0 && y < y1;
+    }
+
+    /**
+     * Computes the horizontal part of the smallest translation moving the
+     * second box outside the first one.
+     * @return horizontal translation, 0.0 if the boxes do not overlap or if
+     * the translation is vertical
+     * @see #penetrationY(double, double, double, double, double, double, double, double)
+     */
+    public static double penetrationX(double x0, double y0, double x1, double y1,
+            double u0, double v0, double u1, double v1) {
+        double left = u1 - x0;
+        double right = x1 - u0;
+        double bottom = v1 - y0;
+        double top = y1 - v0;
+        if (left <= 0.0 || right <= 0.0 || bottom <= 0.0 || top <= 0.0)
+            return 0.0;
+        if (Math.min(left, right) < Math.min(bottom, top))
+            return left < right ? -left : right;
+        return 0.0;
+    }
+
+    /**
+     * Computes the vertical part of the smallest translation moving the
+     * second box outside the first one.
+     * @return vertical translation, 0.0 if the boxes do not overlap or if
+     * the translation is horizontal
+     * @see #penetrationX(double, double, double, double, double, double, double, double)
+     */
+    public static double penetrationY(double x0, double y0, double x1, double y1,
+            double u0, double v0, double u1, double v1) {
+        double left = u1 - x0;
+        double right = x1 - u0;
+        double bottom = v1 - y0;
+        double top = y1 - v0;
+        if (left <= 0.0 || right <= 0.0 || bottom <= 0.0 || top <= 0.0)
+            return 0.0;
+        if (Math.min(left, right) < Math.min(bottom, top))
+            return 0.0;
+        return bottom < top ? -bottom : top;
+    }
+
+    /**
+     * Computes when the first box, moving by (dx, dy), begins to overlap the
+     * second one (swept test). The first box may be empty, e.g. a point, in
+     * which case it overlaps the second box when it is strictly inside.
+     * @return fraction of the movement, between 0.0 and 1.0, at which the
+     * boxes begin to overlap, 0.0 if they already do, or positive infinity if
+     * they do not during the movement
+     */
+    public static double timeOfImpact(double x0, double y0, double x1, double y1,
+            double dx, double dy, double u0, double v0, double u1, double v1) {
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+        if (dx == 0.0) {
+            if (!(x0 < u1 && u0 < x1))
+                return Double.POSITIVE_INFINITY;
+        } else {
+            double a = (u0 - x1) / dx;
+            double b = (u1 - x0) / dx;
+            enter = Math.min(a, b);
+            exit = Math.max(a, b);
+        }
+        if (dy == 0.0) {
+            if (!(y0 < v1 && v0 < y1))
+                return Double.POSITIVE_INFINITY;
+        } else {
+            double a = (v0 - y1) / dy;
+            double b = (v1 - y0) / dy;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+        if (enter >= exit || enter >= 1.0 || exit <= 0.0)
+            return Double.POSITIVE_INFINITY;
+        return Math.max(enter, 0.0);
+    }
+
+    /**
+     * Finds the packed boxes that overlap a box, as tested by overlaps.
+     * @param minX left sides of the packed boxes, not null
+     * @param minY bottom sides of the packed boxes, not null
+     * @param maxX right sides of the packed boxes, not null
+     * @param maxY top sides of the packed boxes, not null
+     * @param from first packed box to test
+     * @param to end of the packed boxes to test, exclusive
+     * @param result receives the indices of the overlapping boxes, in
+     * increasing order, at least <code>to - from</code> long
+     * @return number of indices written in result
+     * @see #overlaps(double, double, double, double, double, double, double, double)
+     */
+    public static int overlapping(double x0, double y0, double x1, double y1,
+            double[] minX, double[] minY, double[] maxX, double[] maxY,
+            int from, int to, int[] result) {
+        // Same result as overlaps, empty boxes included
+        if (!(x0 < x1 && y0 < y1))
+            return 0;
+        int count = 0;
+        for (int i = from; i < to; ++i) {
+            boolean hit = (minX[i] < x1) & (x0 < maxX[i]) & (minX[i] < maxX[i])
+                    & (minY[i] < y1) & (y0 < maxY[i]) & (minY[i] < maxY[i]);
+            result[count] = i;
+            count += hit ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the packed boxes that overlap or touch a box.
+     * @param minX left sides of the packed boxes, not null
+     * @param minY bottom sides of the packed boxes, not null
+     * @param maxX right sides of the packed boxes, not null
+     * @param maxY top sides of the packed boxes, not null
+     * @param from first packed box to test
+     * @param to end of the packed boxes to test, exclusive
+     * @param result receives the indices of the touching boxes, in
+     * increasing order, at least <code>to - from</code> long
+     * @return number of indices written in result
+     * @see #overlapping(double, double, double, double, double[], double[], double[], double[], int, int, int[])
+     */
+    public static int touching(double x0, double y0, double x1, double y1,
+            double[] minX, double[] minY, double[] maxX, double[] maxY,
+            int from, int to, int[] result) {
+        int count = 0;
+        for (int i = from; i < to; ++i) {
+            boolean hit = (minX[i] <= x1) & (x0 <= maxX[i]) & (minY[i] <= y1) & (y0 <= maxY[i]);
+            result[count] = i;
+            count += hit ? 1 : 0;
+        }
+        return count;
+    }
+
+}
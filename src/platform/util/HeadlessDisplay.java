@@ -0,0 +1,274 @@
+package platform.util;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Display without any window, e.g. for servers and load tests.
+ * <p>
+ * Nothing is drawn, time advances by a fixed amount at each frame whatever
+ * the wall time, and input is scripted in advance, frame by frame. Frames are
+ * numbered from 0, the first call to {@link #begin()} starting frame 0.
+ */
+public class HeadlessDisplay implements Display {
+
+    // Encapsulates a collection of buttons
+    private static class ButtonManager {
+
+        private Map<Integer, Button> current;
+        private Map<Integer, Boolean> buffer;
+
+        private ButtonManager() {
+            current = new HashMap<>();
+            buffer = new HashMap<>();
+        }
+
+        public Button get(int key) {
+            Button state = current.get(key);
+            if (state == null)
+                return Button.UP;
+            return state;
+        }
+
+        public void set(int key, boolean value) {
+            buffer.put(key, value);
+        }
+
+        public void update() {
+            for (Map.Entry<Integer, Boolean> entry : buffer.entrySet())
+                current.put(entry.getKey(), get(entry.getKey()).updated(entry.getValue()));
+        }
+    }
+
+    private Box box;
+    private double deltaTime, time;
+    private int frame;
+    private Map<Integer, List<Runnable>> script;
+    private Vector mouseLocation;
+    private ButtonManager keyboardButtons;
+    private ButtonManager mouseButtons;
+    private int mouseScroll;
+    private int mouseScrollBuffer;
+    private boolean closeRequested;
+    private long drawCount;
+
+    /**
+     * Creates a new headless display.
+     * @param width width of the virtual screen, in pixels, positive
+     * @param height height of the virtual screen, in pixels, positive
+     * @param deltaTime duration of each frame, in seconds, positive
+     */
+    public HeadlessDisplay(int width, int height, double deltaTime) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("size must be positive");
+        if (deltaTime <= 0.0)
+            throw new IllegalArgumentException("delta time must be positive");
+        box = new Box(Vector.ZERO, new Vector(width, height));
+        this.deltaTime = deltaTime;
+        time = 0.0;
+        frame = -1;
+        script = new HashMap<>();
+        mouseLocation = box.getCenter();
+        keyboardButtons = new ButtonManager();
+        mouseButtons = new ButtonManager();
+        closeRequested = false;
+    }
+
+    /** Creates a new headless display, of the size of the default window, at 60 frames per second */
+    public HeadlessDisplay() {
+        this(1024, 768, 1.0 / 60.0);
+    }
+
+    /**
+     * Adds an action to run at the beginning of a frame.
+     * @param frame frame number, non negative
+     * @param action action to run, not null
+     */
+    private void at(int frame, Runnable action) {
+        if (frame < 0)
+            throw new IllegalArgumentException("frame must be non negative");
+        List<Runnable> actions = script.get(frame);
+        if (actions == null) {
+            actions = new ArrayList<>();
+            script.put(frame, actions);
+        }
+        actions.add(action);
+    }
+
+    /**
+     * Presses a keyboard button at specified frame.
+     * @param frame frame number, non negative
+     * @param code valid button identifier
+     * @see java.awt.event.KeyEvent
+     */
+    public void pressKey(int frame, int code) {
+        at(frame, () -> keyboardButtons.set(code, true));
+    }
+
+    /**
+     * Releases a keyboard button at specified frame.
+     * @param frame frame number, non negative
+     * @param code valid button identifier
+     * @see java.awt.event.KeyEvent
+     */
+    public void releaseKey(int frame, int code) {
+        at(frame, () -> keyboardButtons.set(code, false));
+    }
+
+    /**
+     * Presses a mouse button at specified frame.
+     * @param frame frame number, non negative
+     * @param index valid button identifier (1 - left, 2 - right, 3 - middle)
+     */
+    public void pressMouse(int frame, int index) {
+        at(frame, () -> mouseButtons.set(index, true));
+    }
+
+    /**
+     * Releases a mouse button at specified frame.
+     * @param frame frame number, non negative
+     * @param index valid button identifier (1 - left, 2 - right, 3 - middle)
+     */
+    public void releaseMouse(int frame, int index) {
+        at(frame, () -> mouseButtons.set(index, false));
+    }
+
+    /**
+     * Moves the mouse at specified frame.
+     * @param frame frame number, non negative
+     * @param location mouse location, in pixels, with origin at lower-left corner, not null
+     */
+    public void moveMouse(int frame, Vector location) {
+        if (location == null)
+            throw new NullPointerException();
+        at(frame, () -> mouseLocation = location);
+    }
+
+    /**
+     * Rotates the mouse wheel at specified frame.
+     * @param frame frame number, non negative
+     * @param units rotation units (positive is upward)
+     */
+    public void scroll(int frame, int units) {
+        at(frame, () -> mouseScrollBuffer += units);
+    }
+
+    /**
+     * Requests to close the display at specified frame.
+     * @param frame frame number, non negative
+     */
+    public void requestClose(int frame) {
+        at(frame, () -> closeRequested = true);
+    }
+
+    /** @return number of the current frame, -1 before the first frame */
+    public int getFrame() {
+        return frame;
+    }
+
+    /** @return number of sprites drawn since the display was created */
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    @Override
+    public void setBackground(Color color) {}
+
+    @Override
+    public void begin() {
+        ++frame;
+
+        // Play the script
+        List<Runnable> actions = script.remove(frame);
+        if (actions != null)
+            for (Runnable action : actions)
+                action.run();
+
+        // Update input buffers
+        keyboardButtons.update();
+        mouseButtons.update();
+        mouseScroll = mouseScrollBuffer;
+        mouseScrollBuffer = 0;
+
+        // Update time, ignoring the wall clock
+        time += deltaTime;
+    }
+
+    @Override
+    public void end() {}
+
+    @Override
+    public void close() {
+        closeRequested = true;
+    }
+
+    @Override
+    public boolean isCloseRequested() {
+        return closeRequested;
+    }
+
+    @Override
+    public Box getBox() {
+        return box;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location) {
+        ++drawCount;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle) {
+        ++drawCount;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
+        ++drawCount;
+    }
+
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        drawCount += count;
+    }
+
+    @Override
+    public double getTime() {
+        return time;
+    }
+
+    @Override
+    public double getDeltaTime() {
+        return deltaTime;
+    }
+
+    @Override
+    public Vector getMouseLocation() {
+        return mouseLocation;
+    }
+
+    @Override
+    public Button getMouseButton(int index) {
+        return mouseButtons.get(index);
+    }
+
+    @Override
+    public int getMouseScroll() {
+        return mouseScroll;
+    }
+
+    @Override
+    public Button getKeyboardButton(int code) {
+        return keyboardButtons.get(code);
+    }
+
+    @Override
+    public Button getFocus() {
+        return Button.DOWN;
+    }
+
+}
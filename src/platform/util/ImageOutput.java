@@ -0,0 +1,77 @@
+package platform.util;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws sprites on an off-screen image covering an area, e.g. to draw once
+ * what does not change, then show it as a single sprite.
+ */
+public class ImageOutput implements Output {
+
+    private Box box;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private SpriteRenderer renderer;
+
+    /**
+     * Creates a new transparent image.
+     * @param box area covered by the image, not empty, not null
+     * @param width width of the image, in pixels, positive
+     * @param height height of the image, in pixels, positive
+     */
+    public ImageOutput(Box box, int width, int height) {
+        if (box == null)
+            throw new NullPointerException();
+        if (width <= 0 || height <= 0 || box.getWidth() <= 0.0 || box.getHeight() <= 0.0)
+            throw new IllegalArgumentException();
+        this.box = box;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+        renderer = new SpriteRenderer();
+
+        // The bottom left corner of the area is the bottom left pixel
+        double scaleX = width / box.getWidth();
+        double scaleY = height / box.getHeight();
+        renderer.setGraphics(graphics, new AffineTransform(scaleX, 0.0, 0.0, -scaleY,
+                -box.getMin().getX() * scaleX, box.getMax().getY() * scaleY), box);
+    }
+
+    /**
+     * Ends the drawing, the output must not be used afterwards.
+     * @return sprite of everything drawn, not null
+     */
+    public Sprite toSprite() {
+        graphics.dispose();
+        renderer.setGraphics(null, null, null);
+        return new Sprite(image);
+    }
+
+    @Override
+    public Box getBox() {
+        return box;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location) {
+        renderer.drawSprite(sprite, location, 0.0, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle) {
+        renderer.drawSprite(sprite, location, angle, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
+        renderer.drawSprite(sprite, location, angle, transparency);
+    }
+
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        renderer.drawSprites(sprites, x, y, width, height, angles, transparencies, count);
+    }
+
+}
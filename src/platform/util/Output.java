@@ -31,6 +31,22 @@ public interface Output {
      * @param transparency transparency multiplier, between 0.0 and 1.0
      */
     public void drawSprite(Sprite sprite, Box location, double angle, double transparency);
+
+    /**
+     * Draws many sprites at once, in order, as many calls to
+     * {@link #drawSprite(Sprite, Box, double, double)} would. The arrays are
+     * only read during the call, and may be reused by the caller afterwards.
+     * @param sprites images to render, not null, with no null element
+     * @param x horizontal coordinates of the centers of the areas, not null
+     * @param y vertical coordinates of the centers of the areas, not null
+     * @param width widths of the areas, not null
+     * @param height heights of the areas, not null
+     * @param angles counter-clockwise angles, in radians, null for none
+     * @param transparencies transparency multipliers, between 0.0 and 1.0, null for opaque
+     * @param count number of sprites, the first ones of the arrays
+     */
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count);
 	
     
     
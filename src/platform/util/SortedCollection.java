@@ -1,65 +1,252 @@
 package platform.util;
 
 import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
 
 /**
- * Provides an ordered collection of elements.
- * @param <E> type of element, must be self-comparable
+ * Provides a collection of elements ordered by increasing rank.
+ * <p>
+ * Elements of the same rank are stored in the same bucket, in insertion
+ * order, and buckets are kept sorted. The rank of an element is read when it
+ * is added: if it changes, the element must be removed and added again to
+ * move. Elements are identified by reference: an element can only be added
+ * once, and removal leaves a tombstone that is cleaned by {@link #compact()}.
+ * @param <E> type of element
  */
-public class SortedCollection<E extends Comparable<? super E>> extends AbstractCollection<E> {
-	
-	private LinkedList<E> list;
-    
+public class SortedCollection<E> extends AbstractCollection<E> {
+
+    /** Elements of the same rank, in insertion order */
+    private static final class Bucket {
+        private int key;
+        private Object[] items = new Object[8];
+        private int size;
+        private int tombstones;
+    }
+
+    /** Position of an element */
+    private static final class Location {
+        private Bucket bucket;
+        private int position;
+    }
+
+    private ToIntFunction<? super E> rank;
+    private ArrayList<Bucket> buckets;
+    private IdentityHashMap<Object, Location> index;
+    private int modifications;
+
     /**
      * Creates a new empty ordered collection.
+     * @param rank gives the rank of an element, not null
      */
-    public SortedCollection() {
-        list = new LinkedList<>();
+    public SortedCollection(ToIntFunction<? super E> rank) {
+        if (rank == null)
+            throw new NullPointerException();
+        this.rank = rank;
+        buckets = new ArrayList<>();
+        index = new IdentityHashMap<>();
     }
-    
+
     /**
      * Creates a new ordered collection with specified elements.
+     * @param rank gives the rank of an element, not null
      * @param other an existing collection of elements, not null
      */
-    public SortedCollection(Collection<? extends E> other) {
-        this();
+    public SortedCollection(ToIntFunction<? super E> rank, Collection<? extends E> other) {
+        this(rank);
         addAll(other);
     }
-    
+
     @Override
     public boolean add(E e) {
-        ListIterator<E> iterator = list.listIterator();
-        while (iterator.hasNext()) {
-            E next = iterator.next();
-            if (e.compareTo(next) < 0) {
-                iterator.previous();
-                iterator.add(e);
-                return true;
-            }
+        if (e == null)
+            throw new NullPointerException();
+        if (index.containsKey(e))
+            return false;
+
+        // Find the first bucket whose rank is not below the one of the element
+        int key = rank.applyAsInt(e);
+        int low = 0;
+        int high = buckets.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buckets.get(middle).key < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        Bucket bucket;
+        if (low < buckets.size() && buckets.get(low).key == key)
+            bucket = buckets.get(low);
+        else {
+            bucket = new Bucket();
+            bucket.key = key;
+            buckets.add(low, bucket);
+        }
+
+        if (bucket.size == bucket.items.length) {
+            // Reuse the room of removed elements before growing
+            if (bucket.tombstones > bucket.size / 2)
+                compact(bucket);
+            else
+                bucket.items = Arrays.copyOf(bucket.items, bucket.size * 2);
         }
-        list.add(e);
+        Location location = new Location();
+        location.bucket = bucket;
+        location.position = bucket.size;
+        bucket.items[bucket.size++] = e;
+        index.put(e, location);
+        ++modifications;
         return true;
     }
-    
+
+    @Override
+    public boolean remove(Object o) {
+        Location location = index.remove(o);
+        if (location == null)
+            return false;
+        location.bucket.items[location.position] = null;
+        ++location.bucket.tombstones;
+        ++modifications;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return index.containsKey(o);
+    }
+
+    @Override
+    public void clear() {
+        buckets.clear();
+        index.clear();
+        ++modifications;
+    }
+
     @Override
     public Iterator<E> iterator() {
-        return list.iterator();
+        return new Cursor(false);
     }
-    
+
     @Override
     public int size() {
-        return list.size();
+        return index.size();
     }
 
     /**
      * @return a reversed view of elements, not null
      */
     public Iterable<E> descending() {
-        return () -> list.descendingIterator();
+        return () -> new Cursor(true);
     }
-    
+
+    /**
+     * Removes the tombstones left by removed elements and the empty buckets.
+     * Should be called when no iteration is in progress, e.g. at the end of a frame.
+     */
+    public void compact() {
+        boolean changed = false;
+        for (int b = buckets.size() - 1; b >= 0; --b) {
+            Bucket bucket = buckets.get(b);
+            if (bucket.tombstones == 0)
+                continue;
+            compact(bucket);
+            if (bucket.size == 0)
+                buckets.remove(b);
+            changed = true;
+        }
+        if (changed)
+            ++modifications;
+    }
+
+    // Slides the remaining elements of a bucket down
+    private void compact(Bucket bucket) {
+        int size = 0;
+        for (int i = 0; i < bucket.size; ++i) {
+            Object item = bucket.items[i];
+            if (item != null) {
+                index.get(item).position = size;
+                bucket.items[size++] = item;
+            }
+        }
+        Arrays.fill(bucket.items, size, bucket.size, null);
+        bucket.size = size;
+        bucket.tombstones = 0;
+    }
+
+    /** Iterates over the buckets, skipping tombstones */
+    private final class Cursor implements Iterator<E> {
+        private final boolean reversed;
+        private int expected;
+        private int bucket;
+        private int position;
+        private Object next;
+        private Object last;
+
+        private Cursor(boolean reversed) {
+            this.reversed = reversed;
+            this.expected = modifications;
+            if (reversed) {
+                bucket = buckets.size() - 1;
+                position = bucket >= 0 ? buckets.get(bucket).size - 1 : -1;
+            }
+            advance();
+        }
+
+        // Finds the next element, or sets next to null
+        private void advance() {
+            next = null;
+            while (bucket >= 0 && bucket < buckets.size()) {
+                Bucket current = buckets.get(bucket);
+                if (position >= 0 && position < current.size) {
+                    next = current.items[position];
+                    position += reversed ? -1 : 1;
+                    if (next != null)
+                        return;
+                    continue;
+                }
+                if (reversed) {
+                    --bucket;
+                    position = bucket >= 0 ? buckets.get(bucket).size - 1 : -1;
+                } else {
+                    ++bucket;
+                    position = 0;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modifications != expected)
+                throw new ConcurrentModificationException();
+            if (next == null)
+                throw new NoSuchElementException();
+            last = next;
+            advance();
+            return (E)last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null || modifications != expected)
+                throw new IllegalStateException();
+            // Tombstones do not move the other elements
+            SortedCollection.this.remove(last);
+            expected = modifications;
+            last = null;
+        }
+    }
+
 }
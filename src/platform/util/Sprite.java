@@ -12,11 +12,14 @@ import java.io.IOException;
 import javax.imageio.ImageIO;
 
 /**
- * An immutable RGBA image.
+ * An immutable RGBA image, which may be a region of a larger one shared
+ * with other sprites, e.g. a page of an atlas.
+ * @see AtlasLoader
  */
 public final class Sprite {
     
 	private final BufferedImage image;
+	private final int x, y, width, height;
 	
     /**
      * Creates a sprite from specified image.
@@ -28,15 +31,21 @@ public final class Sprite {
 		// http://stackoverflow.com/questions/13605248/java-converting-image-to-bufferedimage
 		// http://stackoverflow.com/questions/148478/java-2d-drawing-optimal-performance
 		
-		// Get system graphical configuration
-		GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-		
 		// Get image size
 		int width = image.getWidth(null);
 		int height = image.getHeight(null);
+		this.x = 0;
+		this.y = 0;
+		this.width = width;
+		this.height = height;
 		
-		// Create optimized buffered image
-		this.image = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		// Create optimized buffered image, or a plain one if there is no screen
+		if (GraphicsEnvironment.isHeadless())
+			this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		else {
+			GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			this.image = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
 		
 		// Draw original image in buffer
 		Graphics2D graphics = this.image.createGraphics();
@@ -44,6 +53,26 @@ public final class Sprite {
 		graphics.dispose();
 	}
 	
+    /**
+     * Creates a sprite from a region of the image of another one, which is
+     * shared rather than copied.
+     * @param page sprite whose whole image holds the region, not null
+     * @param x left side of the region, in pixels
+     * @param y top side of the region, in pixels
+     * @param width width of the region, in pixels, positive
+     * @param height height of the region, in pixels, positive
+     */
+	public Sprite(Sprite page, int x, int y, int width, int height) {
+		if (x < 0 || y < 0 || width <= 0 || height <= 0
+				|| x + width > page.image.getWidth() || y + height > page.image.getHeight())
+			throw new IllegalArgumentException("region must be inside the image");
+		this.image = page.image;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+	
     /**
      * Creates a sprite from specified image file.
      * @param file valid image file identifier, not null
@@ -62,19 +91,29 @@ public final class Sprite {
 		this(new File(path));
 	}
 	
-    /** @return underlying buffered image, not null */
+    /** @return underlying buffered image, holding the region of the sprite, not null */
 	public BufferedImage getImage() {
 		return image;
 	}
 	
+    /** @return left side of the region in the underlying image, in pixels */
+	public int getX() {
+		return x;
+	}
+	
+    /** @return top side of the region in the underlying image, in pixels */
+	public int getY() {
+		return y;
+	}
+	
     /** @return image width, in pixels */
 	public int getWidth() {
-		return image.getWidth();
+		return width;
 	}
 	
     /** @return image height, in pixels */
 	public int getHeight() {
-		return image.getHeight();
+		return height;
 	}
 	
 }
@@ -0,0 +1,138 @@
+package platform.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws sprites on a Java2D context, with a single reused transform.
+ * Shared by the outputs drawing on a window or on an image.
+ */
+final class SpriteRenderer implements Output {
+
+    private Box box;
+    private Graphics2D graphics;
+    private AffineTransform base;
+    private AffineTransform transform;
+
+    /** Creates a new renderer, without any context */
+    SpriteRenderer() {
+        transform = new AffineTransform();
+    }
+
+    /**
+     * Sets the context to draw on.
+     * @param graphics context, null to forget the previous one
+     * @param base transform from the coordinates of the output to pixels, not null unless graphics is null
+     * @param box visible bounds, in the coordinates of the output, not null unless graphics is null
+     */
+    void setGraphics(Graphics2D graphics, AffineTransform base, Box box) {
+        this.box = box;
+        this.graphics = graphics;
+        this.base = base;
+        if (graphics != null)
+            graphics.setTransform(base);
+    }
+
+    @Override
+    public Box getBox() {
+        return box;
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location) {
+        drawSprite(sprite, location, 0.0, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle) {
+        drawSprite(sprite, location, angle, 1.0);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
+        if (transparency <= 0.0)
+            return;
+        Vector min = location.getMin();
+        Vector max = location.getMax();
+        place(sprite, (min.getX() + max.getX()) * 0.5, (min.getY() + max.getY()) * 0.5,
+                max.getX() - min.getX(), max.getY() - min.getY(), angle);
+
+        // Draw image with alpha modifier
+        if (transparency < 1.0) {
+            Composite original = graphics.getComposite();
+            graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)transparency));
+            drawRegion(sprite, sprite.getImage());
+            graphics.setComposite(original);
+        } else
+            drawRegion(sprite, sprite.getImage());
+    }
+
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        Composite original = graphics.getComposite();
+        double current = 1.0;
+        Sprite last = null;
+        BufferedImage image = null;
+        for (int i = 0; i < count; ++i) {
+            double transparency = transparencies == null ? 1.0 : transparencies[i];
+            if (transparency <= 0.0)
+                continue;
+
+            // Consecutive sprites with the same transparency share a composite,
+            // and those of the same atlas page share an image
+            if (transparency != current) {
+                graphics.setComposite(transparency < 1.0
+                        ? AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)transparency)
+                        : original);
+                current = transparency;
+            }
+            if (sprites[i] != last) {
+                last = sprites[i];
+                image = last.getImage();
+            }
+            place(last, x[i], y[i], width[i], height[i], angles == null ? 0.0 : angles[i]);
+            drawRegion(last, image);
+        }
+        graphics.setComposite(original);
+    }
+
+    /**
+     * Sets the shared transform to draw a sprite in an area.
+     * @param sprite image to render, not null
+     * @param x horizontal coordinate of the center of the area
+     * @param y vertical coordinate of the center of the area
+     * @param width width of the area
+     * @param height height of the area
+     * @param angle counter-clockwise angle, in radians
+     */
+    private void place(Sprite sprite, double x, double y, double width, double height, double angle) {
+        // Move to desired location, rotate, rescale sprite according to box
+        // (images have inverted Y-axis), then center sprite at origin
+        transform.setTransform(base);
+        transform.translate(x, y);
+        if (angle != 0.0)
+            transform.rotate(angle);
+        transform.scale(width / sprite.getWidth(), -height / sprite.getHeight());
+        transform.translate(sprite.getWidth() / -2.0, sprite.getHeight() / -2.0);
+    }
+
+    /**
+     * Draws the region of a sprite with the shared transform, as its image
+     * may be a page of an atlas holding other sprites.
+     * @param sprite sprite to render, not null
+     * @param image underlying image of the sprite, not null
+     */
+    private void drawRegion(Sprite sprite, BufferedImage image) {
+        int x = sprite.getX();
+        int y = sprite.getY();
+        int width = sprite.getWidth();
+        int height = sprite.getHeight();
+        graphics.setTransform(transform);
+        graphics.drawImage(image, 0, 0, width, height, x, y, x + width, y + height, null);
+    }
+
+}
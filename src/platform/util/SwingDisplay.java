@@ -1,9 +1,7 @@
 package platform.util;
 
-import java.awt.AlphaComposite;
 import java.awt.Canvas;
 import java.awt.Color;
-import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.MouseInfo;
 import java.awt.Point;
@@ -19,6 +17,7 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
 import javax.swing.JFrame;
@@ -26,6 +25,11 @@ import javax.swing.SwingUtilities;
 
 /**
  * Swing and AWT implementation of Output and Input interfaces.
+ * <p>
+ * Sprites drawn in a frame are recorded, then compared to those of the
+ * previous frame: only the area where they differ is drawn again, on an
+ * image kept from frame to frame. When nothing differs, the frame is not
+ * drawn nor presented, and the display waits instead.
  * @see Output
  * @see Input
  */
@@ -60,12 +64,25 @@ public class SwingDisplay implements Display, KeyListener, MouseListener, MouseW
         }
     }
     
+    // Shortest duration of a frame that draws nothing, in nanoseconds
+    private static final long IDLE_PERIOD = 1_000_000_000L / 60;
+
+    // Longest duration without presenting the image, in case the window was covered
+    private static final long REFRESH_PERIOD = 250_000_000L;
+
     // Rendering-related objects
     private JFrame frame;
     private Canvas canvas;
     private BufferStrategy strategy;
-    private Graphics2D graphics;
     private Box box;
+    private SpriteRenderer renderer;
+
+    // Sprites of the current frame, those of the previous one, and its pixels
+    private DrawList commands;
+    private DrawList previous;
+    private BufferedImage screen;
+    private Color cleared;
+    private long presented;
     
     // Input-related objects
     private double deltaTime, time;
@@ -82,6 +99,9 @@ public class SwingDisplay implements Display, KeyListener, MouseListener, MouseW
     public SwingDisplay() {
         
         // Create canvas
+        renderer = new SpriteRenderer();
+        commands = new DrawList();
+        previous = new DrawList();
         canvas = new Canvas();
         canvas.setFocusable(true);
         canvas.setFocusTraversalKeysEnabled(false);
@@ -136,24 +156,13 @@ public class SwingDisplay implements Display, KeyListener, MouseListener, MouseW
             strategy = canvas.getBufferStrategy();
         }
         
-        // Recreate graphic context
-        graphics = (Graphics2D)strategy.getDrawGraphics();
-        
-        // Get current size
+        // Get current size, with origin at lower left corner
         int width = canvas.getWidth();
         int height = canvas.getHeight();
         box = new Box(Vector.ZERO, new Vector(width, height));
 
-        // Clear background
-        graphics.setColor(canvas.getBackground());
-        graphics.fillRect(0, 0, width, height);
-
-        // Enable anti-aliasing
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        
-        // Set transform to have origin at lower left corner
-        graphics.setTransform(new AffineTransform(1.0, 0.0, 0.0, -1.0, 0.0, height));
+        // Record the sprites until the end of the frame
+        commands.clear(box);
         
         // Update mouse location
         if (MouseInfo.getPointerInfo() != null) {
@@ -188,14 +197,88 @@ public class SwingDisplay implements Display, KeyListener, MouseListener, MouseW
     @Override
     public void end() {
 
-        // Dispose context
-        graphics.dispose();
-        graphics = null;
+        int width = (int)box.getWidth();
+        int height = (int)box.getHeight();
         box = null;
-        
-        // Flip buffer
-        strategy.show();
+
+        // Find the area that changed since the previous frame, all of it if
+        // the image must be created again
+        Box dirty = null;
+        if (width > 0 && height > 0) {
+            if (screen == null || screen.getWidth() != width || screen.getHeight() != height) {
+                screen = canvas.getGraphicsConfiguration().createCompatibleImage(width, height);
+                dirty = commands.getBox();
+            } else if (!canvas.getBackground().equals(cleared))
+                dirty = commands.getBox();
+            else
+                dirty = commands.getChanges(previous);
+            if (dirty != null)
+                paint(dirty, height);
+        }
+
+        // Flip buffer, or wait if nothing changed
+        long now = System.nanoTime();
+        if (screen != null && (dirty != null || now - presented > REFRESH_PERIOD))
+            present();
+        else {
+            long wait = before + IDLE_PERIOD - now;
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000, (int)(wait % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        // Keep the sprites of this frame to compare the next one
+        DrawList drawn = commands;
+        commands = previous;
+        previous = drawn;
+    }
+
+    // Draws the current frame again over an area of the image
+    private void paint(Box area, int height) {
+
+        // Pixels partially covered by the area are drawn again too
+        int x0 = Math.max(0, (int)Math.floor(area.getMin().getX()) - 1);
+        int x1 = Math.min(screen.getWidth(), (int)Math.ceil(area.getMax().getX()) + 1);
+        int y0 = Math.max(0, height - (int)Math.ceil(area.getMax().getY()) - 1);
+        int y1 = Math.min(height, height - (int)Math.floor(area.getMin().getY()) + 1);
+        if (x0 >= x1 || y0 >= y1)
+            return;
+        Graphics2D graphics = screen.createGraphics();
+        graphics.setClip(x0, y0, x1 - x0, y1 - y0);
+
+        // Clear background
+        cleared = canvas.getBackground();
+        graphics.setColor(cleared);
+        graphics.fillRect(x0, y0, x1 - x0, y1 - y0);
+
+        // Enable anti-aliasing
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Set transform to have origin at lower left corner, and draw the
+        // sprites touching the area
+        renderer.setGraphics(graphics, new AffineTransform(1.0, 0.0, 0.0, -1.0, 0.0, height), commands.getBox());
+        commands.replay(renderer, new Box(new Vector(x0, height - y1), new Vector(x1, height - y0)));
+        renderer.setGraphics(null, null, null);
+        graphics.dispose();
+    }
+
+    // Copies the image to the window
+    private void present() {
+        do {
+            do {
+                Graphics2D graphics = (Graphics2D)strategy.getDrawGraphics();
+                graphics.drawImage(screen, 0, 0, null);
+                graphics.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
         Toolkit.getDefaultToolkit().sync();
+        presented = System.nanoTime();
     }
 
     @Override
@@ -225,36 +308,13 @@ public class SwingDisplay implements Display, KeyListener, MouseListener, MouseW
 
     @Override
     public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
-        if (transparency <= 0.0)
-            return;
-        
-        // Center sprite at origin
-        AffineTransform center = AffineTransform.getTranslateInstance(sprite.getWidth() / -2.0, sprite.getHeight() / -2.0);
-        
-        // Rescale sprite according to box (images have inverted Y-axis)
-        AffineTransform scale = AffineTransform.getScaleInstance(location.getWidth() / sprite.getWidth(), -location.getHeight() / sprite.getHeight());
-        
-        // Rotate sprite
-        AffineTransform rotate = AffineTransform.getRotateInstance(angle);
-        
-        // Move to desired location
-        AffineTransform move = AffineTransform.getTranslateInstance(location.getCenter().getX(), location.getCenter().getY());
-        
-        // Combine everything
-        AffineTransform transform = move;
-        transform.concatenate(rotate);
-        transform.concatenate(scale);
-        transform.concatenate(center);
-        
-        // Draw image with alpha modifier
-        if (transparency < 1.0) {
-            Composite original = graphics.getComposite();
-            AlphaComposite composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)transparency);
-            graphics.setComposite(composite);
-            graphics.drawImage(sprite.getImage(), transform, null);
-            graphics.setComposite(original);
-        } else
-            graphics.drawImage(sprite.getImage(), transform, null);
+        commands.drawSprite(sprite, location, angle, transparency);
+    }
+    
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        commands.drawSprites(sprites, x, y, width, height, angles, transparencies, count);
     }
     
     @Override
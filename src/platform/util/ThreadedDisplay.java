@@ -0,0 +1,209 @@
+package platform.util;
+
+import java.awt.Color;
+
+/**
+ * Runs another display on a dedicated render thread.
+ * <p>
+ * Sprites drawn between {@link #begin()} and {@link #end()} are recorded in a
+ * {@link DrawList}, which the render thread draws on the underlying display
+ * while the next frame is simulated. Two lists are swapped at each frame, so
+ * that presenting a frame (buffer flip, vertical synchronization) does not
+ * delay the simulation, at the cost of one frame of latency.
+ * <p>
+ * Input is read from the underlying display, which only updates it between
+ * the end of a frame and the beginning of the next one. All methods must be
+ * called from the same thread.
+ */
+public class ThreadedDisplay implements Display {
+
+    private Display display;
+    private Thread thread;
+
+    // Shared with the render thread, guarded by this
+    private DrawList handed;
+    private DrawList published;
+    private boolean stopped;
+    private Throwable failure;
+
+    // Owned by the calling thread
+    private DrawList current;
+    private double time, deltaTime;
+
+    /**
+     * Creates a new display and starts its render thread.
+     * @param display underlying display, only used by the render thread from now on, not null
+     */
+    public ThreadedDisplay(Display display) {
+        if (display == null)
+            throw new NullPointerException();
+        this.display = display;
+        thread = new Thread(this::run, "Render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return underlying display, not null */
+    public Display getDisplay() {
+        return display;
+    }
+
+    // Main loop of the render thread
+    private void run() {
+        DrawList free = new DrawList();
+        DrawList drawn = new DrawList();
+        try {
+            while (true) {
+
+                // Start a new frame and hand a list over to record it
+                display.begin();
+                synchronized (this) {
+                    if (stopped)
+                        break;
+                    free.clear(display.getBox());
+                    handed = free;
+                    free = null;
+                    notifyAll();
+                }
+
+                // Present the previous frame while the new one is recorded
+                drawn.replay(display);
+                display.end();
+
+                // Wait for the new frame, the input must not change before
+                synchronized (this) {
+                    while (!stopped && published == null)
+                        wait();
+                    if (stopped)
+                        break;
+                    free = drawn;
+                    drawn = published;
+                    published = null;
+                }
+            }
+        } catch (Throwable e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+        }
+    }
+
+    // Reports a failure of the render thread to the caller, must hold the lock
+    private void check() {
+        if (failure != null)
+            throw new RuntimeException("render thread failed", failure);
+        if (stopped)
+            throw new IllegalStateException("display is closed");
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        display.setBackground(color);
+    }
+
+    @Override
+    public synchronized void begin() {
+        try {
+            while (handed == null && failure == null && !stopped)
+                wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        check();
+        current = handed;
+        handed = null;
+        time = display.getTime();
+        deltaTime = display.getDeltaTime();
+    }
+
+    @Override
+    public synchronized void end() {
+        check();
+        published = current;
+        current = null;
+        notifyAll();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        display.close();
+    }
+
+    @Override
+    public boolean isCloseRequested() {
+        return display.isCloseRequested();
+    }
+
+    @Override
+    public Box getBox() {
+        return current == null ? null : current.getBox();
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location) {
+        current.drawSprite(sprite, location);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle) {
+        current.drawSprite(sprite, location, angle);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, Box location, double angle, double transparency) {
+        current.drawSprite(sprite, location, angle, transparency);
+    }
+
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        current.drawSprites(sprites, x, y, width, height, angles, transparencies, count);
+    }
+
+    @Override
+    public double getTime() {
+        return time;
+    }
+
+    @Override
+    public double getDeltaTime() {
+        return deltaTime;
+    }
+
+    @Override
+    public Vector getMouseLocation() {
+        return display.getMouseLocation();
+    }
+
+    @Override
+    public Button getMouseButton(int index) {
+        return display.getMouseButton(index);
+    }
+
+    @Override
+    public int getMouseScroll() {
+        return display.getMouseScroll();
+    }
+
+    @Override
+    public Button getKeyboardButton(int code) {
+        return display.getKeyboardButton(code);
+    }
+
+    @Override
+    public Button getFocus() {
+        return display.getFocus();
+    }
+
+}
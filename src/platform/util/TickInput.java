@@ -0,0 +1,151 @@
+package platform.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides input to a simulation running with a fixed time step.
+ * <p>
+ * The underlying input is updated once per rendered frame, which may run
+ * zero or several steps. Button edges (pressed, released) seen by
+ * {@link #poll()} are delivered to exactly one step, even if the frame did not
+ * run any step. Only the buttons that have been queried at least once are
+ * followed.
+ */
+public class TickInput implements Input {
+
+    // State of a followed button
+    private static class Latch {
+
+        private Button state;
+        private boolean pressed;
+        private boolean released;
+
+        private Latch(Button state) {
+            this.state = state;
+        }
+
+        // Records the edges of the current frame
+        private void poll(Button frame) {
+            if (frame.isPressed())
+                pressed = true;
+            if (frame.isReleased())
+                released = true;
+        }
+
+        // Computes the state of the next step
+        private void tick(Button frame) {
+            if (pressed && state.isUp())
+                state = Button.PRESSED;
+            else if (released && state.isDown())
+                state = Button.RELEASED;
+            else
+                state = state.updated(frame.isDown());
+            pressed = false;
+            released = false;
+        }
+    }
+
+    private Input input;
+    private double step;
+    private double time;
+    private Map<Integer, Latch> keyboardButtons;
+    private Map<Integer, Latch> mouseButtons;
+    private Latch focus;
+    private int mouseScroll;
+    private int mouseScrollBuffer;
+
+    /**
+     * Create a new fixed step input.
+     * @param input underlying input, updated once per frame, not null
+     * @param step duration of a step, in seconds, positive
+     */
+    public TickInput(Input input, double step) {
+        if (input == null)
+            throw new NullPointerException();
+        if (step <= 0.0)
+            throw new IllegalArgumentException("step must be positive");
+        this.input = input;
+        this.step = step;
+        time = 0.0;
+        keyboardButtons = new HashMap<>();
+        mouseButtons = new HashMap<>();
+        focus = new Latch(input.getFocus());
+    }
+
+    /** Records the changes of the underlying input, must be called once per frame */
+    public void poll() {
+        for (Map.Entry<Integer, Latch> entry : keyboardButtons.entrySet())
+            entry.getValue().poll(input.getKeyboardButton(entry.getKey()));
+        for (Map.Entry<Integer, Latch> entry : mouseButtons.entrySet())
+            entry.getValue().poll(input.getMouseButton(entry.getKey()));
+        focus.poll(input.getFocus());
+        mouseScrollBuffer += input.getMouseScroll();
+    }
+
+    /** Begins a new step */
+    public void tick() {
+        for (Map.Entry<Integer, Latch> entry : keyboardButtons.entrySet())
+            entry.getValue().tick(input.getKeyboardButton(entry.getKey()));
+        for (Map.Entry<Integer, Latch> entry : mouseButtons.entrySet())
+            entry.getValue().tick(input.getMouseButton(entry.getKey()));
+        focus.tick(input.getFocus());
+        mouseScroll = mouseScrollBuffer;
+        mouseScrollBuffer = 0;
+        time += step;
+    }
+
+    /** @return underlying input, not null */
+    public Input getInput() {
+        return input;
+    }
+
+    @Override
+    public double getTime() {
+        return time;
+    }
+
+    /** @return duration of a step, whatever the duration of the frame */
+    @Override
+    public double getDeltaTime() {
+        return step;
+    }
+
+    @Override
+    public Vector getMouseLocation() {
+        return input.getMouseLocation();
+    }
+
+    @Override
+    public Button getMouseButton(int index) {
+        return get(mouseButtons, index, input.getMouseButton(index));
+    }
+
+    @Override
+    public int getMouseScroll() {
+        return mouseScroll;
+    }
+
+    @Override
+    public Button getKeyboardButton(int code) {
+        return get(keyboardButtons, code, input.getKeyboardButton(code));
+    }
+
+    @Override
+    public Button getFocus() {
+        return focus.state;
+    }
+
+    // Starts following a button on its first query, which may come from several threads
+    private static Button get(Map<Integer, Latch> latches, int code, Button frame) {
+        synchronized (latches) {
+            Latch latch = latches.get(code);
+            if (latch == null) {
+                latch = new Latch(frame);
+                latches.put(code, latch);
+            }
+            return latch.state;
+        }
+    }
+
+}
@@ -8,6 +8,9 @@ public abstract class Transform implements Input, Output {
     private Input input;
 	private Output output;
 
+    // Areas of the sprites drawn at once, converted to underlying coordinates
+    private double[] bufferX, bufferY, bufferWidth, bufferHeight;
+
     /**
      * Create a new view with identity transform.
      * @param input underlying input, not null
@@ -62,6 +65,25 @@ public abstract class Transform implements Input, Output {
         return new Box(convertFromView(x.getMin()), convertFromView(x.getMax()));
     }
     
+    /**
+     * Transform areas to underlying system coordinates, in place. Converts
+     * each box by default, subclasses may do it directly on the components.
+     * @param x horizontal coordinates of the centers, not null
+     * @param y vertical coordinates of the centers, not null
+     * @param width widths, not null
+     * @param height heights, not null
+     * @param count number of areas, the first ones of the arrays
+     */
+    protected void convertFromView(double[] x, double[] y, double[] width, double[] height, int count) {
+        for (int i = 0; i < count; ++i) {
+            Box box = convertFromView(new Box(new Vector(x[i], y[i]), width[i], height[i]));
+            x[i] = (box.getMin().getX() + box.getMax().getX()) * 0.5;
+            y[i] = (box.getMin().getY() + box.getMax().getY()) * 0.5;
+            width[i] = box.getWidth();
+            height[i] = box.getHeight();
+        }
+    }
+    
     @Override
 	public Box getBox() {
 		return convertToView(output.getBox());
@@ -117,4 +139,22 @@ public abstract class Transform implements Input, Output {
         output.drawSprite(sprite, convertFromView(location), angle, transparency);
     }
     
+    @Override
+    public void drawSprites(Sprite[] sprites, double[] x, double[] y, double[] width, double[] height,
+            double[] angles, double[] transparencies, int count) {
+        if (bufferX == null || bufferX.length < count) {
+            int capacity = Math.max(count, 64);
+            bufferX = new double[capacity];
+            bufferY = new double[capacity];
+            bufferWidth = new double[capacity];
+            bufferHeight = new double[capacity];
+        }
+        System.arraycopy(x, 0, bufferX, 0, count);
+        System.arraycopy(y, 0, bufferY, 0, count);
+        System.arraycopy(width, 0, bufferWidth, 0, count);
+        System.arraycopy(height, 0, bufferHeight, 0, count);
+        convertFromView(bufferX, bufferY, bufferWidth, bufferHeight, count);
+        output.drawSprites(sprites, bufferX, bufferY, bufferWidth, bufferHeight, angles, transparencies, count);
+    }
+    
 }
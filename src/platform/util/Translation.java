@@ -0,0 +1,56 @@
+package platform.util;
+
+/**
+ * Moves everything drawn by a given offset, e.g. to interpolate the position
+ * of an actor between two steps of the simulation.
+ */
+public class Translation extends Transform {
+
+    private Vector offset;
+
+    /**
+     * Create a new translation, without any offset.
+     * @param input underlying input, not null
+     * @param output underlying output, not null
+     */
+    public Translation(Input input, Output output) {
+        super(input, output);
+        offset = Vector.ZERO;
+    }
+
+    /** @return current offset, not null */
+    public Vector getOffset() {
+        return offset;
+    }
+
+    /**
+     * Set the offset added to everything drawn.
+     * @param offset translation in underlying system coordinates, not null
+     */
+    public void setOffset(Vector offset) {
+        if (offset == null)
+            throw new NullPointerException();
+        this.offset = offset;
+    }
+
+    @Override
+    public Vector convertToView(Vector x) {
+        return x.sub(offset);
+    }
+
+    @Override
+    public Vector convertFromView(Vector x) {
+        return x.add(offset);
+    }
+
+    @Override
+    protected void convertFromView(double[] x, double[] y, double[] width, double[] height, int count) {
+        double dx = offset.getX();
+        double dy = offset.getY();
+        for (int i = 0; i < count; ++i) {
+            x[i] += dx;
+            y[i] += dy;
+        }
+    }
+
+}
@@ -48,14 +48,27 @@ public class View extends Transform {
         translation = center.sub(extent);
     }
     
+    // Both conversions are done on the components, drawing calls them for each sprite
     @Override
     public Vector convertToView(Vector x) {
-        return x.mul(scale).add(translation);
+        return new Vector(x.getX() * scale + translation.getX(), x.getY() * scale + translation.getY());
     }
     
     @Override
     public Vector convertFromView(Vector x) {
-        return x.sub(translation).div(scale);
+        return new Vector((x.getX() - translation.getX()) / scale, (x.getY() - translation.getY()) / scale);
+    }
+    
+    @Override
+    protected void convertFromView(double[] x, double[] y, double[] width, double[] height, int count) {
+        double tx = translation.getX();
+        double ty = translation.getY();
+        for (int i = 0; i < count; ++i) {
+            x[i] = (x[i] - tx) / scale;
+            y[i] = (y[i] - ty) / scale;
+            width[i] /= scale;
+            height[i] /= scale;
+        }
     }
     
 }
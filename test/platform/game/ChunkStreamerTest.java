@@ -0,0 +1,150 @@
+package platform.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import platform.game.block.Block;
+import platform.game.level.Level;
+import platform.util.Box;
+import platform.util.DefaultLoader;
+import platform.util.HeadlessDisplay;
+import platform.util.Vector;
+
+public class ChunkStreamerTest {
+
+    private static final Vector near = Vector.ZERO;
+    private static final Vector far = new Vector(500.0, 0.0);
+
+    // Two platforms wider than a tile, so that they are not merged, far apart
+    public static final class TwoPlatforms extends Level {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void register(World world) {
+            super.register(world);
+            world.setView(near, 10.0);
+            if (!isDynamicSave()) {
+                setDynamicSave();
+                world.register(new Block(new Box(near, 3.0, 1.0), "stone.broken.3"));
+                world.register(new Block(new Box(far, 3.0, 1.0), "stone.broken.3"));
+            }
+        }
+    }
+
+    // A platform with an Arrow flying into it, watched by the View
+    public static final class StuckArrow extends Level {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void register(World world) {
+            super.register(world);
+            world.setView(near, 10.0);
+            if (!isDynamicSave()) {
+                setDynamicSave();
+                world.register(new Block(new Box(near, 3.0, 1.0), "stone.broken.3"));
+                world.register(new Arrow(near.sub(new Vector(2.0, 0.0)), new Vector(10.0, 0.0), null));
+            }
+        }
+    }
+
+    private final HeadlessDisplay display = new HeadlessDisplay();
+
+    private void step(Simulator simulator) {
+        display.begin();
+        simulator.update(display, display);
+        display.end();
+    }
+
+    private static List<Actor> platformsAt(Simulator simulator, Vector center) {
+        List<Actor> platforms = new ArrayList<>();
+        for (Actor actor : simulator.queryBox(new Box(center, 4.0, 2.0)))
+            if (actor instanceof Block)
+                platforms.add(actor);
+        return platforms;
+    }
+
+    private static Arrow arrowAt(Simulator simulator, Vector center) {
+        for (Actor actor : simulator.queryBox(new Box(center, 4.0, 2.0)))
+            if (actor instanceof Arrow)
+                return (Arrow)actor;
+        return null;
+    }
+
+    // Steps until the platform at some point is back, the files are read on another thread
+    private void waitFor(Simulator simulator, Vector center) throws InterruptedException {
+        for (int i = 0; i < 1000 && platformsAt(simulator, center).isEmpty(); ++i) {
+            step(simulator);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void savesFarChunksAndReadsThemBack() throws InterruptedException {
+        Simulator simulator = new Simulator(DefaultLoader.INSTANCE, new String[0]);
+        simulator.setNextLevel(new TwoPlatforms());
+        simulator.nextLevel();
+        for (int i = 0; i < 10; ++i)
+            step(simulator);
+
+        // Only the platform close to the view stays in the World
+        assertEquals(1, platformsAt(simulator, near).size());
+        assertTrue(platformsAt(simulator, far).isEmpty());
+        assertEquals(1, simulator.getResidentChunks());
+        assertEquals(1, simulator.getStoredChunks());
+
+        // Once the view is there, the far platform is read back as it was saved
+        simulator.setView(far, 10.0);
+        waitFor(simulator, far);
+        List<Actor> found = platformsAt(simulator, far);
+        assertEquals(1, found.size());
+        assertTrue(found.get(0) instanceof Block);
+        assertEquals(new Box(far, 3.0, 1.0).toString(), found.get(0).getBox().toString());
+        assertTrue(platformsAt(simulator, near).isEmpty());
+
+        // And the other way round
+        simulator.setView(near, 10.0);
+        waitFor(simulator, near);
+        assertEquals(1, platformsAt(simulator, near).size());
+        assertTrue(platformsAt(simulator, far).isEmpty());
+        assertEquals(1, simulator.getResidentChunks());
+        assertEquals(1, simulator.getStoredChunks());
+    }
+
+    @Test
+    public void savesLandedArrowWithItsTarget() throws InterruptedException {
+        Simulator simulator = new Simulator(DefaultLoader.INSTANCE, new String[0]);
+        simulator.setNextLevel(new StuckArrow());
+        simulator.nextLevel();
+        for (int i = 0; i < 60; ++i)
+            step(simulator);
+        Arrow arrow = arrowAt(simulator, near);
+        assertNotNull(arrow);
+        assertSame(platformsAt(simulator, near).get(0), arrow.getAnchor());
+
+        // The Arrow leaves the World with its target, instead of being destroyed
+        simulator.setView(far, 10.0);
+        for (int i = 0; i < 1000 && simulator.getStoredChunks() == 0; ++i)
+            step(simulator);
+        assertEquals(1, simulator.getStoredChunks());
+        assertNull(arrowAt(simulator, near));
+        assertTrue(platformsAt(simulator, near).isEmpty());
+
+        // And comes back stuck in the same target
+        simulator.setView(near, 10.0);
+        waitFor(simulator, near);
+        for (int i = 0; i < 10; ++i)
+            step(simulator);
+        arrow = arrowAt(simulator, near);
+        assertNotNull(arrow);
+        assertSame(platformsAt(simulator, near).get(0), arrow.getAnchor());
+    }
+
+}
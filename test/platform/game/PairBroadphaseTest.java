@@ -0,0 +1,185 @@
+package platform.game;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import platform.util.Box;
+import platform.util.Vector;
+
+public class PairBroadphaseTest {
+
+    // Actor whose properties are chosen by the test, which takes part in the interaction pass
+    private static class Probe extends Actor {
+        private static final long serialVersionUID = 1L;
+        private final String name;
+        private final int priority, category, mask;
+        private final boolean local, fixed;
+
+        private Probe(String name, Box box, int priority, int category, int mask, boolean local, boolean fixed) {
+            super(box);
+            this.name = name;
+            this.priority = priority;
+            this.category = category;
+            this.mask = mask;
+            this.local = local;
+            this.fixed = fixed;
+        }
+
+        @Override
+        protected int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public int getCategory() {
+            return category;
+        }
+
+        @Override
+        public int getCollisionMask() {
+            return mask;
+        }
+
+        @Override
+        public boolean hasLocalInteractions() {
+            return local && getBox() != null;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return fixed;
+        }
+
+        @Override
+        public void interact(Actor other) {}
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Same, without the interaction pass
+    private static final class Passive extends Probe {
+        private static final long serialVersionUID = 1L;
+
+        private Passive(String name, Box box, int priority, int category, int mask, boolean local, boolean fixed) {
+            super(name, box, priority, category, mask, local, fixed);
+        }
+
+        @Override
+        public Set<Phase> getPasses() {
+            Set<Phase> passes = EnumSet.copyOf(super.getPasses());
+            passes.remove(Phase.INTERACTION);
+            return passes;
+        }
+    }
+
+    private static List<Actor> randomActors(long seed, int count) {
+        Random random = new Random(seed);
+        List<Actor> actors = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            Box box = null;
+            if (random.nextInt(20) != 0) {
+                Vector center = new Vector(random.nextDouble() * 40.0, random.nextDouble() * 40.0);
+                box = new Box(center, 0.25 + random.nextDouble() * 4.0, 0.25 + random.nextDouble() * 4.0);
+            }
+            int priority = random.nextInt(8);
+            int category = 1 << random.nextInt(10);
+            int mask = random.nextInt(4) == 0 ? Category.ALL : random.nextInt(1 << 10);
+            boolean local = random.nextInt(15) != 0;
+            boolean fixed = box != null && random.nextInt(3) == 0;
+            String name = "a" + i;
+            if (random.nextInt(5) == 0)
+                actors.add(new Passive(name, box, priority, category, mask, local, fixed));
+            else
+                actors.add(new Probe(name, box, priority, category, mask, local, fixed));
+        }
+        return actors;
+    }
+
+    private static StaticGrid grid(List<Actor> actors) {
+        List<Actor> statics = new ArrayList<>();
+        for (Actor actor : actors)
+            if (actor.isStatic())
+                statics.add(actor);
+        return new StaticGrid(statics, GridBroadphase.defaultCellSize);
+    }
+
+    private static boolean overlap(Box a, Box b, double margin) {
+        return a.getMin().getX() - margin <= b.getMax().getX() && b.getMin().getX() - margin <= a.getMax().getX()
+                && a.getMin().getY() - margin <= b.getMax().getY() && b.getMin().getY() - margin <= a.getMax().getY();
+    }
+
+    // Nested loops over the collection, as the Simulator did before the Broadphases
+    private static List<String> nestedLoops(List<Actor> actors, double margin) {
+        List<String> pairs = new ArrayList<>();
+        for (Actor actor : actors) {
+            if (!actor.getPasses().contains(Phase.INTERACTION))
+                continue;
+            for (Actor other : actors) {
+                if (actor == other || actor.getPriority() <= other.getPriority()
+                        || (actor.getCollisionMask() & other.getCategory()) == 0)
+                    continue;
+                boolean global = !actor.isStatic() && !actor.hasLocalInteractions()
+                        || !other.isStatic() && !other.hasLocalInteractions();
+                if (global || !(actor.isStatic() && other.isStatic())
+                        && overlap(actor.getBox(), other.getBox(), margin))
+                    pairs.add(actor + "-" + other);
+            }
+        }
+        return pairs;
+    }
+
+    private static List<String> visit(Broadphase broadphase, List<Actor> actors) {
+        broadphase.build(actors, grid(actors));
+        List<String> pairs = new ArrayList<>();
+        broadphase.forEachPair((actor, other) -> pairs.add(actor + "-" + other));
+        return pairs;
+    }
+
+    @Test
+    public void gridMatchesNestedLoops() {
+        for (long seed = 0; seed < 20; ++seed) {
+            List<Actor> actors = randomActors(seed, 200);
+            assertEquals(nestedLoops(actors, 0.0), visit(new GridBroadphase(), actors));
+        }
+    }
+
+    @Test
+    public void sweepMatchesNestedLoops() {
+        for (long seed = 0; seed < 20; ++seed) {
+            List<Actor> actors = randomActors(seed, 200);
+            assertEquals(nestedLoops(actors, 0.0), visit(new SweepBroadphase(), actors));
+        }
+    }
+
+    @Test
+    public void reusedBroadphaseForgetsPreviousFrame() {
+        Broadphase broadphase = new GridBroadphase();
+        visit(broadphase, randomActors(1, 300));
+        List<Actor> actors = randomActors(2, 50);
+        assertEquals(nestedLoops(actors, 0.0), visit(broadphase, actors));
+    }
+
+    @Test
+    public void pairsStaticActorsWithinTheMargin() {
+        Box wall = new Box(Vector.ZERO, 1.0, 1.0);
+        List<Actor> actors = new ArrayList<>();
+        actors.add(new Probe("near", new Box(new Vector(1.4, 0.0), 1.0, 1.0), 1, 1, Category.ALL, true, false));
+        actors.add(new Probe("wall", wall, 0, 1, Category.ALL, true, true));
+        actors.add(new Probe("far", new Box(new Vector(-1.6, 0.0), 1.0, 1.0), 1, 1, Category.ALL, true, false));
+        List<String> expected = new ArrayList<>();
+        expected.add("near-wall");
+        assertEquals(expected, visit(new GridBroadphase(GridBroadphase.defaultCellSize, 0.5), actors));
+        assertEquals(expected, visit(new SweepBroadphase(0.5), actors));
+    }
+
+}
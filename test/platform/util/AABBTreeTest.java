@@ -0,0 +1,134 @@
+package platform.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class AABBTreeTest {
+
+    private static Box randomBox(Random random) {
+        Vector center = new Vector(random.nextDouble() * 100.0, random.nextDouble() * 100.0);
+        return new Box(center, random.nextDouble() * 5.0, random.nextDouble() * 5.0);
+    }
+
+    // Same comparison as the tree, touching boxes are found
+    private static boolean touches(Box a, Box b, double margin) {
+        return a.getMin().getX() - margin <= b.getMax().getX() && b.getMin().getX() <= a.getMax().getX() + margin
+                && a.getMin().getY() - margin <= b.getMax().getY() && b.getMin().getY() <= a.getMax().getY() + margin;
+    }
+
+    private static TreeSet<Integer> query(AABBTree<Integer> tree, Box area) {
+        List<Integer> found = new ArrayList<>();
+        tree.query(area, found);
+        TreeSet<Integer> set = new TreeSet<>(found);
+        assertEquals("an element is found twice", found.size(), set.size());
+        return set;
+    }
+
+    private static TreeSet<Integer> bruteForce(Map<Integer, Box> boxes, Box area, double margin) {
+        TreeSet<Integer> found = new TreeSet<>();
+        for (Map.Entry<Integer, Box> entry : boxes.entrySet())
+            if (touches(entry.getValue(), area, margin))
+                found.add(entry.getKey());
+        return found;
+    }
+
+    @Test
+    public void queryMatchesBruteForce() {
+        Random random = new Random(1);
+        AABBTree<Integer> tree = new AABBTree<>(0.0);
+        Map<Integer, Box> boxes = new HashMap<>();
+        Map<Integer, Integer> proxies = new HashMap<>();
+        for (int step = 0; step < 3000; ++step) {
+            int action = random.nextInt(4);
+            if (action == 0 && !boxes.isEmpty()) {
+                // Remove some element
+                Integer item = new ArrayList<>(boxes.keySet()).get(random.nextInt(boxes.size()));
+                tree.remove(proxies.remove(item));
+                boxes.remove(item);
+            } else if (action == 1 && !boxes.isEmpty()) {
+                // Move some element
+                Integer item = new ArrayList<>(boxes.keySet()).get(random.nextInt(boxes.size()));
+                Box box = randomBox(random);
+                tree.move(proxies.get(item), box);
+                boxes.put(item, box);
+            } else {
+                Box box = randomBox(random);
+                proxies.put(step, tree.insert(step, box));
+                boxes.put(step, box);
+            }
+            if (step % 10 == 0) {
+                Box area = randomBox(random);
+                assertEquals(bruteForce(boxes, area, 0.0), query(tree, area));
+            }
+        }
+        assertEquals(boxes.size(), tree.size());
+        for (Map.Entry<Integer, Integer> entry : proxies.entrySet())
+            assertEquals(entry.getKey(), tree.get(entry.getValue()));
+    }
+
+    @Test
+    public void enlargedBoxesAreFoundWithinTheMargin() {
+        Random random = new Random(2);
+        double margin = 0.5;
+        AABBTree<Integer> tree = new AABBTree<>(margin);
+        Map<Integer, Box> boxes = new HashMap<>();
+        List<Integer> proxies = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            Box box = randomBox(random);
+            proxies.add(tree.insert(i, box));
+            boxes.put(i, box);
+        }
+
+        // Small movements keep the leaves, the margin may be used up but not exceeded
+        for (int i = 0; i < 500; ++i) {
+            Box box = boxes.get(i);
+            Box moved = new Box(box.getMin().add(new Vector(0.2, -0.2)), box.getMax().add(new Vector(0.2, -0.2)));
+            tree.move(proxies.get(i), moved);
+            boxes.put(i, moved);
+        }
+        for (int i = 0; i < 200; ++i) {
+            Box area = randomBox(random);
+            TreeSet<Integer> found = query(tree, area);
+            assertTrue(found.containsAll(bruteForce(boxes, area, 0.0)));
+            assertTrue(bruteForce(boxes, area, 2.0 * margin).containsAll(found));
+        }
+    }
+
+    @Test
+    public void moveKeepsLeafInsideEnlargedBox() {
+        AABBTree<String> tree = new AABBTree<>(1.0);
+        int proxy = tree.insert("a", new Box(Vector.ZERO, 2.0, 2.0));
+        assertEquals(false, tree.move(proxy, new Box(new Vector(0.5, 0.5), 2.0, 2.0)));
+        assertEquals(true, tree.move(proxy, new Box(new Vector(5.0, 5.0), 2.0, 2.0)));
+        List<String> found = new ArrayList<>();
+        tree.query(new Box(Vector.ZERO, 1.0, 1.0), found);
+        assertTrue(found.isEmpty());
+        tree.query(new Box(new Vector(5.0, 5.0), 1.0, 1.0), found);
+        assertEquals("[a]", found.toString());
+    }
+
+    @Test
+    public void clearForgetsEveryElement() {
+        AABBTree<Integer> tree = new AABBTree<>(0.1);
+        int proxy = 0;
+        for (int i = 0; i < 100; ++i)
+            proxy = tree.insert(i, new Box(new Vector(i, 0.0), 1.0, 1.0));
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertNull(tree.get(proxy));
+        assertTrue(query(tree, new Box(Vector.ZERO, 1000.0, 1000.0)).isEmpty());
+        tree.insert(42, new Box(Vector.ZERO, 1.0, 1.0));
+        assertEquals("[42]", query(tree, new Box(Vector.ZERO, 1000.0, 1000.0)).toString());
+    }
+
+}
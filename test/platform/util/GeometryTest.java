@@ -0,0 +1,85 @@
+package platform.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GeometryTest {
+
+    private static final double epsilon = 1e-9;
+    private static final double never = Double.POSITIVE_INFINITY;
+
+    // Unit box moving from (0, 0) against the box [u0, u1] x [v0, v1]
+    private static double impact(double dx, double dy, double u0, double v0, double u1, double v1) {
+        return Geometry.timeOfImpact(0.0, 0.0, 1.0, 1.0, dx, dy, u0, v0, u1, v1);
+    }
+
+    @Test
+    public void hitsWallOnTheWay() {
+        assertEquals(0.25, impact(4.0, 0.0, 2.0, 0.0, 3.0, 1.0), epsilon);
+        assertEquals(0.25, impact(-4.0, 0.0, -2.0, 0.0, -1.0, 1.0), epsilon);
+        assertEquals(0.5, impact(0.0, -2.0, -5.0, -3.0, 5.0, -1.0), epsilon);
+        // Diagonal, the last axis to enter decides
+        assertEquals(0.5, impact(2.0, 4.0, 0.5, 3.0, 3.0, 4.0), epsilon);
+    }
+
+    @Test
+    public void overlappingBoxesHitImmediately() {
+        assertEquals(0.0, impact(4.0, 0.0, 0.5, 0.5, 2.0, 2.0), 0.0);
+        assertEquals(0.0, impact(0.0, 0.0, 0.5, 0.5, 2.0, 2.0), 0.0);
+    }
+
+    @Test
+    public void missesWallOutOfReach() {
+        // Too far
+        assertEquals(never, impact(1.0, 0.0, 2.5, 0.0, 3.0, 1.0), 0.0);
+        // Behind
+        assertEquals(never, impact(-4.0, 0.0, 2.0, 0.0, 3.0, 1.0), 0.0);
+        // Beside the path, including when only touching it
+        assertEquals(never, impact(4.0, 0.0, 2.0, 1.0, 3.0, 2.0), 0.0);
+        assertEquals(never, impact(4.0, 4.0, 3.0, 0.0, 4.0, 1.0), 0.0);
+        // Not moving and apart
+        assertEquals(never, impact(0.0, 0.0, 2.0, 0.0, 3.0, 1.0), 0.0);
+        // Stopping exactly against it
+        assertEquals(never, impact(1.0, 0.0, 2.0, 0.0, 3.0, 1.0), 0.0);
+    }
+
+    @Test
+    public void pointGoesThroughThinWall() {
+        // An empty box, as the swept center of a fast Arrow
+        double time = Geometry.timeOfImpact(0.0, 0.5, 0.0, 0.5, 10.0, 0.0, 5.0, 0.0, 5.1, 1.0);
+        assertEquals(0.5, time, epsilon);
+        // Grazing the edge of the wall is not a hit
+        assertEquals(never, Geometry.timeOfImpact(0.0, 1.0, 0.0, 1.0, 10.0, 0.0, 5.0, 0.0, 5.1, 1.0), 0.0);
+    }
+
+    @Test
+    public void boxesOverlapRightAfterImpact() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; ++i) {
+            double dx = random.nextDouble() * 20.0 - 10.0;
+            double dy = random.nextDouble() * 20.0 - 10.0;
+            double u0 = random.nextDouble() * 20.0 - 10.0;
+            double v0 = random.nextDouble() * 20.0 - 10.0;
+            double u1 = u0 + random.nextDouble() * 3.0;
+            double v1 = v0 + random.nextDouble() * 3.0;
+            double time = impact(dx, dy, u0, v0, u1, v1);
+
+            // Sample the movement, the boxes must not overlap before the impact
+            for (int s = 0; s <= 1000 && s / 1000.0 < time; ++s) {
+                double t = s / 1000.0;
+                assertTrue(!Geometry.overlaps(t * dx, t * dy, 1.0 + t * dx, 1.0 + t * dy, u0, v0, u1, v1));
+            }
+
+            // But right after it
+            if (time != never) {
+                double t = time + 1e-6;
+                assertTrue(Geometry.overlaps(t * dx, t * dy, 1.0 + t * dx, 1.0 + t * dy, u0, v0, u1, v1));
+            }
+        }
+    }
+
+}
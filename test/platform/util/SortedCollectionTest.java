@@ -0,0 +1,113 @@
+package platform.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SortedCollectionTest {
+
+    // Element whose priority may change while it is in a collection
+    private static final class Item {
+        private final String name;
+        private int priority;
+
+        private Item(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + priority;
+        }
+    }
+
+    // Highest priority first, as the Actors of a World
+    private static SortedCollection<Item> collection() {
+        return new SortedCollection<Item>(item -> -item.priority);
+    }
+
+    private static List<String> names(Iterable<Item> items) {
+        List<String> names = new ArrayList<>();
+        for (Item item : items)
+            names.add(item.name);
+        return names;
+    }
+
+    @Test
+    public void ordersByRankThenInsertion() {
+        SortedCollection<Item> items = collection();
+        items.add(new Item("a", 0));
+        items.add(new Item("b", 42));
+        items.add(new Item("c", 0));
+        items.add(new Item("d", 9001));
+        items.add(new Item("e", 42));
+        assertEquals(Arrays.asList("d", "b", "e", "a", "c"), names(items));
+        assertEquals(Arrays.asList("c", "a", "e", "b", "d"), names(items.descending()));
+    }
+
+    @Test
+    public void matchesStableSort() {
+        Random random = new Random(1);
+        SortedCollection<Item> items = collection();
+        List<Item> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            Item item = new Item("i" + i, random.nextInt(20));
+            items.add(item);
+            expected.add(item);
+            if (random.nextInt(4) == 0) {
+                Item removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(items.remove(removed));
+            }
+            if (random.nextInt(50) == 0)
+                items.compact();
+        }
+        expected.sort((a, b) -> Integer.compare(b.priority, a.priority));
+        assertEquals(names(expected), names(items));
+        assertEquals(expected.size(), items.size());
+    }
+
+    @Test
+    public void movesElementAddedAgainWithNewPriority() {
+        SortedCollection<Item> items = collection();
+        for (int priority : new int[] {9001, 4242, 600, 42, 0})
+            items.add(new Item("x", priority));
+        Item arrow = new Item("arrow", 600);
+        items.add(arrow);
+
+        // Its priority changes, then it is registered again, as a landed Arrow
+        arrow.priority = -1;
+        assertTrue(items.remove(arrow));
+        assertTrue(items.add(arrow));
+        assertEquals("[x:9001, x:4242, x:600, x:42, x:0, arrow:-1]", items.toString());
+
+        // The first element of a bucket may change too
+        Item first = items.iterator().next();
+        first.priority = 1;
+        items.remove(first);
+        items.add(first);
+        items.compact();
+        assertEquals("[x:4242, x:600, x:42, x:1, x:0, arrow:-1]", items.toString());
+    }
+
+    @Test
+    public void identifiesElementsByReference() {
+        SortedCollection<Item> items = collection();
+        Item item = new Item("a", 1);
+        assertTrue(items.add(item));
+        assertFalse(items.add(item));
+        assertTrue(items.contains(item));
+        assertFalse(items.contains(new Item("a", 1)));
+        assertTrue(items.remove(item));
+        assertFalse(items.remove(item));
+        assertTrue(items.isEmpty());
+    }
+
+}